@@ -0,0 +1,200 @@
+package theater;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for seating parties in an Auditorium.
+ * <p>
+ * The auditorium is as close to square as the number of seats allows, and
+ * is filled with parties of one to six viewers, who later leave in random
+ * order. Each benchmark is run with every kind of seat map.
+ * <p>
+ * Filling and emptying the auditorium change it, so they are timed as a
+ * single shot over the whole auditorium, with the auditorium rebuilt before
+ * every iteration. Rendering the seating chart of a full auditorium leaves
+ * it unchanged, so it is timed as an average.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 40)
+@Fork(2)
+public class AuditoriumBenchmarks {
+
+    /* The seed for all random data, so every fork sees the same data. */
+    private static final long SEED = 20170427L;
+    /* The price of a ticket, in cents. */
+    private static final long PRICE_CENTS = 500;
+
+    /* The number of seats in the auditorium. */
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    /* The kind of seat map, as named by Auditorium.newSeatMap. */
+    @Param({"array", "bitmap", "list", "gap"})
+    String seatMap;
+
+    /* The names of the parties, in the order they are seated. */
+    private String[] names;
+    /* The sizes of the parties, in the order they are seated. */
+    private int[] sizes;
+
+    /**
+     * Chooses the parties once per trial; together they fill every seat.
+     */
+    @Setup(Level.Trial)
+    public void setUpParties() {
+        int capacity = rows() * (size / rows());
+        Random random = new Random(SEED);
+        names = new String[capacity];
+        sizes = new int[capacity];
+        int parties = 0;
+        for (int seated = 0; seated < capacity; parties++) {
+            sizes[parties] = Math.min(1 + random.nextInt(6), capacity - seated);
+            names[parties] = "Party" + parties;
+            seated += sizes[parties];
+        }
+        names = Arrays.copyOf(names, parties);
+        sizes = Arrays.copyOf(sizes, parties);
+        // Parties arrive and leave in random order.
+        for (int i = parties - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String name = names[i];
+            names[i] = names[j];
+            names[j] = name;
+            int partySize = sizes[i];
+            sizes[i] = sizes[j];
+            sizes[j] = partySize;
+        }
+    }
+
+    /**
+     * Seats every party until the auditorium is full.
+     *
+     * @param empty an empty auditorium.
+     * @return the auditorium.
+     */
+    @Benchmark
+    public Auditorium addParty(Empty empty) {
+        fill(empty.auditorium);
+        return empty.auditorium;
+    }
+
+    /**
+     * Removes every party from a full auditorium.
+     *
+     * @param full a full auditorium.
+     * @return the auditorium.
+     */
+    @Benchmark
+    public Auditorium removeParty(Full full) {
+        for (int i = names.length - 1; i >= 0; i--)
+            full.auditorium.removeParty(names[i], sizes[i]);
+        return full.auditorium;
+    }
+
+    /**
+     * Renders the seating chart of a full auditorium.
+     *
+     * @param full a full auditorium.
+     * @return the seating chart.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String generateSeatingChart(Full full) {
+        return full.auditorium.generateSeatingChart();
+    }
+
+    /**
+     * Returns the number of rows of the auditorium.
+     *
+     * @return the number of rows, about the square root of the size.
+     */
+    private int rows() {
+        return Math.max(1, (int) Math.sqrt(size));
+    }
+
+    /**
+     * Returns a new, empty auditorium with the benchmark's seat map.
+     *
+     * @return the auditorium.
+     */
+    private Auditorium newAuditorium() {
+        int rows = rows();
+        int seatsPerRow = size / rows;
+        return new Auditorium("Life", rows, seatsPerRow,
+            Auditorium.newSeatMap(seatMap, rows * seatsPerRow));
+    }
+
+    /**
+     * Seats every party in the given auditorium.
+     *
+     * @param auditorium the auditorium.
+     */
+    private void fill(Auditorium auditorium) {
+        for (int i = 0; i < names.length; i++)
+            auditorium.addParty(names[i], sizes[i], PRICE_CENTS);
+    }
+
+    /**
+     * An empty auditorium, rebuilt before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+
+        /* The auditorium. */
+        Auditorium auditorium;
+
+        /**
+         * Builds the auditorium.
+         *
+         * @param benchmark the benchmark, which holds the size and seat map.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(AuditoriumBenchmarks benchmark) {
+            auditorium = benchmark.newAuditorium();
+        }
+    }
+
+    /**
+     * A full auditorium, rebuilt and filled before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Full {
+
+        /* The auditorium. */
+        Auditorium auditorium;
+
+        /**
+         * Builds the auditorium and seats every party.
+         *
+         * @param benchmark the benchmark, which holds the parties.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(AuditoriumBenchmarks benchmark) {
+            auditorium = benchmark.newAuditorium();
+            benchmark.fill(auditorium);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package theater;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for customers passing through the box office of a Theater.
+ * <p>
+ * The theater has an express line and two regular lines, and two
+ * auditoriums that together hold the given number of seats. There are
+ * enough customers, in parties of one to six viewers, to fill every seat.
+ * Each benchmark moves every customer through one step, so it is timed as a
+ * single shot, with the theater rebuilt before every iteration. Listing the
+ * customers leaves the theater unchanged, so it is timed as an average.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 40)
+@Fork(2)
+public class BoxOfficeBenchmarks {
+
+    /* The seed for all random data, so every fork sees the same data. */
+    private static final long SEED = 20170427L;
+    /* The movies playing. */
+    private static final String[] MOVIES = {"Life", "Logan"};
+
+    /* The number of seats in the theater. */
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    /* The customers, in the order they arrive. */
+    private Customer[] customers;
+    /* Whether each customer has a child with them. */
+    private boolean[] hasChild;
+
+    /**
+     * Chooses the customers once per trial; together they fill every seat.
+     */
+    @Setup(Level.Trial)
+    public void setUpCustomers() {
+        int seatsPerMovie = Math.max(1, size / MOVIES.length);
+        Random random = new Random(SEED);
+        int[] remaining = {seatsPerMovie, seatsPerMovie};
+        customers = new Customer[2 * seatsPerMovie];
+        hasChild = new boolean[customers.length];
+        int count = 0;
+        while (remaining[0] > 0 || remaining[1] > 0) {
+            int movie = random.nextInt(MOVIES.length);
+            if (remaining[movie] == 0)
+                movie = 1 - movie;
+            int partySize = Math.min(1 + random.nextInt(6), remaining[movie]);
+            remaining[movie] -= partySize;
+            customers[count] = new Customer("Customer" + count, MOVIES[movie],
+                partySize);
+            hasChild[count++] = random.nextInt(4) == 0;
+        }
+        customers = Arrays.copyOf(customers, count);
+        hasChild = Arrays.copyOf(hasChild, count);
+    }
+
+    /**
+     * Puts every customer in a line.
+     *
+     * @param empty a theater with empty lines.
+     * @param blackhole consumes the lines the customers join.
+     */
+    @Benchmark
+    public void enqueueCustomer(Empty empty, Blackhole blackhole) {
+        for (int i = 0; i < customers.length; i++)
+            blackhole.consume(empty.theater.enqueueCustomer(customers[i],
+                hasChild[i]));
+    }
+
+    /**
+     * Seats every customer from full lines.
+     *
+     * @param full a theater with every customer in a line.
+     * @param blackhole consumes the customers seated.
+     */
+    @Benchmark
+    public void seatNextCustomer(Full full, Blackhole blackhole) {
+        for (int i = 0; i < customers.length; i++) {
+            blackhole.consume(full.theater.getNextCustomer());
+            blackhole.consume(full.theater.seatNextCustomer());
+        }
+    }
+
+    /**
+     * Lists every customer in the theater, which copies them into a new
+     * ordered list.
+     *
+     * @param full a theater with every customer in a line.
+     * @return the customers.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public OrderedListInterface<Customer, String> getCustomers(Full full) {
+        return full.theater.getCustomers();
+    }
+
+    /**
+     * Returns a new theater with empty lines and auditoriums.
+     *
+     * @return the theater.
+     */
+    private Theater newTheater() {
+        Theater theater = new Theater(5.00);
+        for (String movie : MOVIES)
+            theater.addAuditorium(new Auditorium(movie, 1,
+                Math.max(1, size / MOVIES.length)));
+        theater.addLine("express", 0.5, true);
+        theater.addLine("first");
+        theater.addLine("second");
+        theater.setNextLine(0);
+        return theater;
+    }
+
+    /**
+     * A theater with empty lines, rebuilt before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+
+        /* The theater. */
+        Theater theater;
+
+        /**
+         * Builds the theater.
+         *
+         * @param benchmark the benchmark, which holds the size.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(BoxOfficeBenchmarks benchmark) {
+            theater = benchmark.newTheater();
+        }
+    }
+
+    /**
+     * A theater with every customer in a line, rebuilt before every
+     * iteration.
+     */
+    @State(Scope.Thread)
+    public static class Full {
+
+        /* The theater. */
+        Theater theater;
+
+        /**
+         * Builds the theater and puts every customer in a line.
+         *
+         * @param benchmark the benchmark, which holds the customers.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(BoxOfficeBenchmarks benchmark) {
+            theater = benchmark.newTheater();
+            for (int i = 0; i < benchmark.customers.length; i++)
+                theater.enqueueCustomer(benchmark.customers[i],
+                    benchmark.hasChild[i]);
+        }
+    }
+}
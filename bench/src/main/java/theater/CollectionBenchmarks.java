@@ -0,0 +1,281 @@
+package theater;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the lists and queues used by the Theater.
+ * <p>
+ * Every benchmark makes one whole pass over a collection of the given size,
+ * so each is timed as a single shot: the state is rebuilt before every
+ * iteration, outside of the timed region, and the time reported is for the
+ * whole pass. Lookups that leave the collection unchanged are timed as an
+ * average instead.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 40)
+@Fork(2)
+public class CollectionBenchmarks {
+
+    /* The seed for all random data, so every fork sees the same data. */
+    private static final long SEED = 20170427L;
+
+    /* The number of items in each pass. */
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    /**
+     * Adds items to the end of an ArrayBasedList, growing it as it goes.
+     *
+     * @return the list.
+     */
+    @Benchmark
+    public ListInterface<Integer> arrayListAddEnd() {
+        ListInterface<Integer> list = new ArrayBasedList<Integer>();
+        for (int i = 0; i < size; i++)
+            list.add(i, i);
+        return list;
+    }
+
+    /**
+     * Adds items to the end of an ArrayBasedList made large enough for all
+     * of them, so it never grows.
+     *
+     * @return the list.
+     */
+    @Benchmark
+    public ListInterface<Integer> arrayListAddEndPresized() {
+        ListInterface<Integer> list = new ArrayBasedList<Integer>(size);
+        for (int i = 0; i < size; i++)
+            list.add(i, i);
+        return list;
+    }
+
+    /**
+     * Adds items to the front of an ArrayBasedList, shifting every item.
+     *
+     * @return the list.
+     */
+    @Benchmark
+    public ListInterface<Integer> arrayListAddFront() {
+        ListInterface<Integer> list = new ArrayBasedList<Integer>();
+        for (int i = 0; i < size; i++)
+            list.add(0, i);
+        return list;
+    }
+
+    /**
+     * Removes every item from the front of an ArrayBasedList.
+     *
+     * @param full the list to empty.
+     * @param blackhole consumes the removed items.
+     */
+    @Benchmark
+    public void arrayListRemoveFront(FullList full, Blackhole blackhole) {
+        while (! full.list.isEmpty())
+            blackhole.consume(full.list.remove(0));
+    }
+
+    /**
+     * Enqueues items into a new Queue, which resizes as it grows, and then
+     * dequeues all of them.
+     *
+     * @param blackhole consumes the dequeued items.
+     */
+    @Benchmark
+    public void queueEnqueueDequeue(Blackhole blackhole) {
+        QueueInterface<Integer> queue = new Queue<Integer>();
+        for (int i = 0; i < size; i++)
+            queue.enqueue(i);
+        while (! queue.isEmpty())
+            blackhole.consume(queue.dequeue());
+    }
+
+    /**
+     * Adds customers with random names to an AscendinglyOrderedList.
+     *
+     * @param customers the customers to add.
+     * @return the list.
+     */
+    @Benchmark
+    public OrderedListInterface<Customer, String> orderedListAdd(
+            Customers customers) {
+        OrderedListInterface<Customer, String> list =
+            new AscendinglyOrderedList<Customer, String>();
+        for (Customer customer : customers.customers)
+            list.add(customer);
+        return list;
+    }
+
+    /**
+     * Adds customers with random names to a TreeOrderedList.
+     *
+     * @param customers the customers to add.
+     * @return the list.
+     */
+    @Benchmark
+    public OrderedListInterface<Customer, String> treeListAdd(
+            Customers customers) {
+        OrderedListInterface<Customer, String> list =
+            new TreeOrderedList<Customer, String>();
+        for (Customer customer : customers.customers)
+            list.add(customer);
+        return list;
+    }
+
+    /**
+     * Finds one customer in an AscendinglyOrderedList of the given size.
+     *
+     * @param list the list to search.
+     * @param probe the customer to find.
+     * @return the index of the customer.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int orderedListIndexOf(FullOrderedList list, Probe probe) {
+        Customer[] customers = list.customers.customers;
+        return list.list.indexOf(
+            customers[probe.next(customers.length)].getKey());
+    }
+
+    /**
+     * Finds one customer in a TreeOrderedList of the given size.
+     *
+     * @param list the list to search.
+     * @param probe the customer to find.
+     * @return the index of the customer.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public int treeListIndexOf(FullOrderedList list, Probe probe) {
+        Customer[] customers = list.customers.customers;
+        return list.tree.indexOf(
+            customers[probe.next(customers.length)].getKey());
+    }
+
+    /**
+     * An ArrayBasedList of the given size, rebuilt before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class FullList {
+
+        /* The list. */
+        ListInterface<Integer> list;
+
+        /**
+         * Fills a new list.
+         *
+         * @param benchmark the benchmark, which holds the size.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(CollectionBenchmarks benchmark) {
+            list = new ArrayBasedList<Integer>();
+            for (int i = 0; i < benchmark.size; i++)
+                list.add(i, i);
+        }
+    }
+
+    /**
+     * Customers with random names, built once per trial.
+     */
+    @State(Scope.Thread)
+    public static class Customers {
+
+        /* The customers. */
+        Customer[] customers;
+
+        /**
+         * Builds the customers.
+         *
+         * @param benchmark the benchmark, which holds the size.
+         */
+        @Setup(Level.Trial)
+        public void setUp(CollectionBenchmarks benchmark) {
+            Random random = new Random(SEED);
+            customers = new Customer[benchmark.size];
+            for (int i = 0; i < customers.length; i++)
+                customers[i] = new Customer("Customer" + random.nextInt(),
+                    "Life", 1);
+        }
+    }
+
+    /**
+     * An AscendinglyOrderedList and a TreeOrderedList, each holding every
+     * customer, built once per trial.
+     */
+    @State(Scope.Thread)
+    public static class FullOrderedList {
+
+        /* The customers in the list. */
+        Customers customers;
+        /* The sorted array list. */
+        OrderedListInterface<Customer, String> list;
+        /* The tree list. */
+        OrderedListInterface<Customer, String> tree;
+
+        /**
+         * Adds every customer to a new list of each kind.
+         *
+         * @param customers the customers.
+         */
+        @Setup(Level.Trial)
+        public void setUp(Customers customers) {
+            this.customers = customers;
+            list = new AscendinglyOrderedList<Customer, String>();
+            tree = new TreeOrderedList<Customer, String>();
+            for (Customer customer : customers.customers) {
+                list.add(customer);
+                tree.add(customer);
+            }
+        }
+    }
+
+    /**
+     * Chooses which item the next lookup searches for, stepping through
+     * the items in a fixed order.
+     */
+    @State(Scope.Thread)
+    public static class Probe {
+
+        /* The index of the last item; the step shares no factor with the
+           sizes, so every item is visited. */
+        private int index;
+
+        /**
+         * Returns the index of the next item to search for.
+         *
+         * @param size the number of items.
+         * @return the index, from zero to one less than the size.
+         */
+        int next(int size) {
+            index = (index + 40503) % size;
+            return index;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package theater;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for work over a whole Theater: loading it from a catalog,
+ * rendering its end-of-night report, and running a TheaterWorkload.
+ * <p>
+ * The catalog has one auditorium of 100 seats per hundred seats of the
+ * size. The report is of 40 half-full auditoriums that together hold the
+ * given number of seats, rendered on one thread and on all cores. Neither
+ * changes any state, so both are timed as an average.
+ * <p>
+ * The workload has the given number of customer parties arrive at its
+ * theater, so it is timed as a single shot, with the theater rebuilt before
+ * every iteration.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TheaterBenchmarks {
+
+    /* The number of auditoriums in the theater reported on. */
+    private static final int SCREENS = 40;
+
+    /* The number of seats in the theater, or parties in the workload. */
+    @Param({"100", "1000", "10000", "100000"})
+    int size;
+
+    /* The text of the catalog. */
+    private String catalog;
+    /* The theater reported on. */
+    private Theater theater;
+    /* A pool with a single thread. */
+    private ForkJoinPool onePool;
+    /* A pool with a thread for every core. */
+    private ForkJoinPool allPool;
+
+    /**
+     * Writes the catalog and fills the theater to report on, once per
+     * trial, and starts the pools the report is rendered on.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder text = new StringBuilder("price 5.00\n");
+        for (int i = 0; i < Math.max(1, size / 100); i++)
+            text.append("auditorium Movie").append(i).append(" 10 10\n");
+        catalog = text.append("line first\n").toString();
+
+        int seats = Math.max(1, size / SCREENS);
+        theater = new Theater(5.00);
+        for (int screen = 0; screen < SCREENS; screen++) {
+            Auditorium aud = new Auditorium("Movie" + screen, 1, seats);
+            for (int seated = 0; seated < seats / 2; seated += 4)
+                aud.addParty("Party" + seated, Math.min(4, seats - seated),
+                    500);
+            theater.addAuditorium(aud);
+        }
+        onePool = new ForkJoinPool(1);
+        allPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Shuts the pools down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        onePool.shutdown();
+        allPool.shutdown();
+    }
+
+    /**
+     * Reads the catalog and builds a theater from it.
+     *
+     * @return the theater.
+     * @throws IOException never, since the catalog is read from a String.
+     */
+    @Benchmark
+    public Theater catalogCreateTheater() throws IOException {
+        return TheaterCatalog.read(new StringReader(catalog)).createTheater();
+    }
+
+    /**
+     * Renders the end-of-night report on a single thread.
+     *
+     * @return the report.
+     */
+    @Benchmark
+    public String reportOneThread() {
+        return new TheaterReport(theater, false, onePool).generate();
+    }
+
+    /**
+     * Renders the end-of-night report on every core.
+     *
+     * @return the report.
+     */
+    @Benchmark
+    public String reportAllCores() {
+        return new TheaterReport(theater, false, allPool).generate();
+    }
+
+    /**
+     * Runs the workload against a new theater.
+     *
+     * @param run the workload and its theater.
+     * @return the report of the run.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 40)
+    public TheaterWorkload.Report workload(Workload run) {
+        return run.workload.run(run.theater);
+    }
+
+    /**
+     * A workload with the given number of parties and a new theater for it,
+     * rebuilt before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Workload {
+
+        /* The workload. */
+        TheaterWorkload workload;
+        /* The theater the workload runs against. */
+        Theater theater;
+
+        /**
+         * Builds the workload and its theater.
+         *
+         * @param benchmark the benchmark, which holds the size.
+         */
+        @Setup(Level.Iteration)
+        public void setUp(TheaterBenchmarks benchmark) {
+            workload = new TheaterWorkload();
+            workload.set("customers", String.valueOf(benchmark.size));
+            theater = workload.createTheater();
+        }
+    }
+}
@@ -1,5 +1,20 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
 /**
  * A resizable-array implementation of the ListInterface.
+ * The array doubles in size whenever it runs out of room, so adding items
+ * at the end takes constant amortized time. Items are moved with
+ * System.arraycopy(), and the array is kept when the list is emptied.
+ * <p>
+ * Iterators and spliterators read the array directly. They are fail-fast:
+ * if the list is structurally changed other than through the iterator
+ * itself, they throw a ConcurrentModificationException.
  * 
  * @author Eugene Koval
  * @version 2017.04.21
@@ -8,16 +23,34 @@
  */
 public class ArrayBasedList<T> implements ListInterface<T> {
 
+    /** The capacity of a list unless another is given. */
+    public static final int DEFAULT_CAPACITY = 10;
+
     /** The array containing this list's items. */
     protected T[] items;
     /** The total number of items in this list. */
     protected int numItems;
+    /** The number of times this list has been structurally changed. */
+    protected int modCount = 0;
 
     /**
-     * Constructs an empty list with an initial capacity of three.
+     * Constructs an empty list with an initial capacity of ten.
      */
     public ArrayBasedList() {
-        items = (T[]) new Object[3];
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with room for the given number of items
+     * before it needs to grow.
+     *
+     * @param initialCapacity the number of items the list has room for.
+     */
+    public ArrayBasedList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new ListException(
+                "Illegal list capacity: " + initialCapacity);
+        items = (T[]) new Object[initialCapacity];
         numItems = 0;
     }
 
@@ -64,17 +97,41 @@ public class ArrayBasedList<T> implements ListInterface<T> {
     public void add(int index, T item) {
         if (index >= 0 && index <= numItems) {
             if (numItems == items.length)
-                resize();
-            for (int pos = numItems - 1; pos >= index; pos--) 
-                items[pos + 1] = items[pos];
+                ensureCapacity(numItems + 1);
+            System.arraycopy(items, index, items, index + 1, numItems - index);
             items[index] = item;
             numItems++;
+            modCount++;
         }
         else
             throw new ListIndexOutOfBoundsException(
                "List index " + index + " out of bounds on add.");
     }
     
+    /**
+     * Inserts all of the specified items at the specified position in this
+     * list, in the order they are given.
+     * The item currently at that position (if any) and any subsequent items
+     * are shifted to the right once, by the number of items inserted.
+     *
+     * @param index index at which the first item is to be inserted
+     * @param newItems items to be inserted
+     */
+    public void addAll(int index, T[] newItems) {
+        if (index >= 0 && index <= numItems) {
+            int count = newItems.length;
+            ensureCapacity(numItems + count);
+            System.arraycopy(items, index, items, index + count,
+                numItems - index);
+            System.arraycopy(newItems, 0, items, index, count);
+            numItems += count;
+            modCount++;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+               "List index " + index + " out of bounds on add.");
+    }
+
     /**
      * Removes the item at the specified position in this list.
      * Shifts any subsequent items to the left.
@@ -84,10 +141,11 @@ public class ArrayBasedList<T> implements ListInterface<T> {
     public T remove(int index) {
         if (index >= 0 && index < numItems) {
             T item = items[index];
-            for (int pos = index + 1; pos < numItems; pos++)
-                items[pos - 1] = items[pos];
+            System.arraycopy(items, index + 1, items, index,
+                numItems - index - 1);
             items[numItems - 1] = null;
             numItems--;
+            modCount++;
             return item;
         }
         else
@@ -95,14 +153,99 @@ public class ArrayBasedList<T> implements ListInterface<T> {
                 "List index " + index + " out of bonds on remove.");
     }
 
+    /**
+     * Removes the items from the first index, inclusive, to the second
+     * index, exclusive. Any subsequent items are shifted to the left once.
+     *
+     * @param fromIndex the index of the first item to be removed
+     * @param toIndex the index after the last item to be removed
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= 0 && fromIndex <= toIndex && toIndex <= numItems) {
+            System.arraycopy(items, toIndex, items, fromIndex,
+                numItems - toIndex);
+            int newSize = numItems - (toIndex - fromIndex);
+            Arrays.fill(items, newSize, numItems, null);
+            numItems = newSize;
+            modCount++;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List range " + fromIndex + " to " + toIndex
+                + " out of bounds on remove.");
+    }
+
+    /**
+     * Removes every item of this list that matches the given filter.
+     * The items that are kept move left in a single pass, in order.
+     *
+     * @param filter returns true for the items to be removed
+     * @return the number of items removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int kept = 0;
+        for (int pos = 0; pos < numItems; pos++)
+            if (! filter.test(items[pos]))
+                items[kept++] = items[pos];
+        int removed = numItems - kept;
+        Arrays.fill(items, kept, numItems, null);
+        numItems = kept;
+        if (removed > 0)
+            modCount++;
+        return removed;
+    }
+
     /**
      * Removes all of the items from this list.
      * The list will be empty after this call returns.
-     * The list's capacity will return to the initial size of three.
+     * The list keeps its capacity; call trimToSize() to release it.
      */
     public void removeAll() {
-        items = (T[]) new Object[3];
+        Arrays.fill(items, 0, numItems, null);
         numItems = 0;
+        modCount++;
+    }
+
+    /**
+     * Makes sure this list has room for at least the given number of items
+     * without growing again.
+     * If it must grow, its capacity is at least doubled.
+     *
+     * @param minCapacity the number of items the list must have room for.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > items.length)
+            items = Arrays.copyOf(items,
+                Math.max(minCapacity, items.length * 2));
+    }
+
+    /**
+     * Shrinks this list's capacity to its number of items.
+     */
+    public void trimToSize() {
+        if (numItems < items.length)
+            items = Arrays.copyOf(items, numItems);
+    }
+
+    /**
+     * Returns an iterator over the items of this list, in order.
+     *
+     * @return a fail-fast iterator over this list.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the items of this list, in order.
+     * It knows its exact size and splits in halves, so the list can be
+     * processed by a parallel stream.
+     *
+     * @return a fail-fast spliterator over this list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Splitr(0, -1, 0);
     }
 
     /** 
@@ -119,15 +262,108 @@ public class ArrayBasedList<T> implements ListInterface<T> {
             listString += items[i].toString() + '\n';
         return listString;
     }
-    
+
     /**
-     * Resizes this list to make room for additional items.
-     * The list's sie is increased by a factor of 1.5.
+     * An iterator over the items of this list.
      */
-    private void resize() {
-        T[] resizedItems = (T[]) new Object[(items.length * 3) / 2 + 1];
-        for (int i = 0; i < numItems; i++)
-            resizedItems[i] = items[i];
-        items = resizedItems;
+    private class Itr implements Iterator<T> {
+
+        /* The index of the next item to return. */
+        private int cursor = 0;
+        /* The index of the last item returned, or -1 if none. */
+        private int last = -1;
+        /* The modification count this iterator expects. */
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor < numItems;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (cursor >= numItems)
+                throw new NoSuchElementException();
+            last = cursor++;
+            return items[last];
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            ArrayBasedList.this.remove(last);
+            cursor = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * A spliterator over a range of the items of this list.
+     * The range is bound to the list's size when it is first used.
+     */
+    private class Splitr implements Spliterator<T> {
+
+        /* The index of the next item to return. */
+        private int index;
+        /* The index after the last item, or -1 until first used. */
+        private int fence;
+        /* The modification count this spliterator expects. */
+        private int expectedModCount;
+
+        Splitr(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = numItems;
+            }
+            return fence;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int middle = (index + high) >>> 1;
+            if (index >= middle)
+                return null;
+            Spliterator<T> prefix = new Splitr(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int high = getFence();
+            if (index >= high)
+                return false;
+            T item = items[index++];
+            action.accept(item);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            T[] array = items;
+            int high = getFence();
+            for (; index < high; index++)
+                action.accept(array[index]);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                | Spliterator.SUBSIZED;
+        }
     }
 }
@@ -0,0 +1,293 @@
+import java.util.Arrays;
+
+/**
+ * A seat map that keeps its occupied seats in parallel arrays of ints.
+ * <p>
+ * Like a ListSeatMap, it holds the occupied seats in ascending order of
+ * position and finds them with a binary search. Instead of one Seat object
+ * per seat, though, the positions are kept in one int array and the
+ * occupants in another, as small party ids. Each party name is stored only
+ * once, in a table of names counting how many seats each one holds; an id is
+ * reused once all of its seats are freed. Searches and shifts run over
+ * plain ints that sit next to each other in memory, and occupying seats
+ * creates no objects at all.
+ * <p>
+ * A Seat is only made when one is asked for with getSeat().
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class ArraySeatMap implements SeatMapInterface {
+
+    /* The number of seats the arrays have room for at first. */
+    private static final int INITIAL_SIZE = 16;
+
+    /* The total number of seats. */
+    private int capacity;
+    /* The positions of the occupied seats in ascending order. */
+    private int[] positions;
+    /* The id of the party in each occupied seat, by index in positions. */
+    private int[] partyIds;
+    /* The number of occupied seats. */
+    private int numOccupied = 0;
+    /* The name of each party, by id, or null if the id is unused. */
+    private PartyName[] names;
+    /* The ids of the party names, by name. */
+    private KeyedHashTable<PartyName, String> ids;
+    /* The unused ids below the highest one ever given out. */
+    private int[] freeIds;
+    /* The number of unused ids. */
+    private int numFreeIds = 0;
+    /* The number of ids ever given out. */
+    private int numIds = 0;
+
+    /**
+     * Constructs a seat map with the given number of seats, all of them free.
+     *
+     * @param capacity the total number of seats.
+     */
+    public ArraySeatMap(int capacity) {
+        this.capacity = capacity;
+        int size = Math.min(capacity, INITIAL_SIZE);
+        positions = new int[size];
+        partyIds = new int[size];
+        names = new PartyName[size];
+        freeIds = new int[size];
+        ids = new KeyedHashTable<PartyName, String>();
+    }
+
+    /**
+     * Returns the total number of seats, free or otherwise.
+     *
+     * @return the total number of seats.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of occupied seats.
+     *
+     * @return the number of occupied seats.
+     */
+    public int size() {
+        return numOccupied;
+    }
+
+    /**
+     * Returns true if no seats are occupied.
+     *
+     * @return true if no seats are occupied.
+     */
+    public boolean isEmpty() {
+        return numOccupied == 0;
+    }
+
+    /**
+     * Returns the position of the first free seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the free seat, or capacity + 1 if there is none.
+     */
+    public int nextFree(int position) {
+        for (int index = indexOf(position); index < numOccupied
+                && positions[index] == position; index++)
+            position++;
+        return (position <= capacity) ? position : capacity + 1;
+    }
+
+    /**
+     * Returns the position of the first occupied seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the occupied seat, or capacity + 1 if there is none.
+     */
+    public int nextOccupied(int position) {
+        int index = indexOf(position);
+        return (index < numOccupied) ? positions[index] : capacity + 1;
+    }
+
+    /**
+     * Returns the name of the occupant of the seat at the given position.
+     *
+     * @param position the position of the seat.
+     * @return the occupant's name, or null if the seat is free.
+     */
+    public String getOccupant(int position) {
+        int index = indexOf(position);
+        if (index < numOccupied && positions[index] == position)
+            return names[partyIds[index]].getKey();
+        else
+            return null;
+    }
+
+    /**
+     * Returns the seat at the given position.
+     * A new Seat is made for every call.
+     *
+     * @param position the position of the seat.
+     * @return the seat, or null if it is free.
+     */
+    public Seat getSeat(int position) {
+        String occupant = getOccupant(position);
+        return (occupant != null) ? new Seat(position, occupant) : null;
+    }
+
+    /**
+     * Occupies a run of consecutive free seats with the given occupant.
+     *
+     * @param first the position of the first seat to occupy.
+     * @param count the number of seats to occupy.
+     * @param occupant the name of the seats' occupant.
+     */
+    public void occupy(int first, int count, String occupant) {
+        if (count <= 0)
+            return;
+        int id = idOf(occupant);
+        names[id].seats += count;
+        if (numOccupied + count > positions.length) {
+            int size = Math.min(Math.max(positions.length * 2,
+                numOccupied + count), capacity);
+            positions = Arrays.copyOf(positions, size);
+            partyIds = Arrays.copyOf(partyIds, size);
+        }
+        int index = indexOf(first);
+        System.arraycopy(positions, index, positions, index + count,
+            numOccupied - index);
+        System.arraycopy(partyIds, index, partyIds, index + count,
+            numOccupied - index);
+        for (int i = 0; i < count; i++) {
+            positions[index + i] = first + i;
+            partyIds[index + i] = id;
+        }
+        numOccupied += count;
+    }
+
+    /**
+     * Frees the seat at the given position.
+     *
+     * @param position the position of the seat to free.
+     * @return the name of the seat's former occupant, or null if it was free.
+     */
+    public String vacate(int position) {
+        int index = indexOf(position);
+        if (index >= numOccupied || positions[index] != position)
+            return null;
+        PartyName name = names[partyIds[index]];
+        System.arraycopy(positions, index + 1, positions, index,
+            numOccupied - index - 1);
+        System.arraycopy(partyIds, index + 1, partyIds, index,
+            numOccupied - index - 1);
+        numOccupied--;
+        release(name, 1);
+        return name.getKey();
+    }
+
+    /**
+     * Frees a run of consecutive seats. Seats of the run that are already
+     * free stay free.
+     *
+     * @param first the position of the first seat to free.
+     * @param count the number of seats to free.
+     */
+    public void vacate(int first, int count) {
+        int from = indexOf(first);
+        int to = indexOf(first + count);
+        for (int index = from; index < to; index++)
+            release(names[partyIds[index]], 1);
+        System.arraycopy(positions, to, positions, from, numOccupied - to);
+        System.arraycopy(partyIds, to, partyIds, from, numOccupied - to);
+        numOccupied -= to - from;
+    }
+
+    /**
+     * Frees all seats.
+     */
+    public void clear() {
+        numOccupied = 0;
+        Arrays.fill(names, 0, numIds, null);
+        ids.removeAll();
+        numIds = 0;
+        numFreeIds = 0;
+    }
+
+    /**
+     * Returns the id of the given party name, giving it an unused one if it
+     * holds no seats yet.
+     *
+     * @param occupant the party name.
+     * @return the id of the name.
+     */
+    private int idOf(String occupant) {
+        if (ids.contains(occupant))
+            return ids.get(occupant).id;
+        int id;
+        if (numFreeIds > 0)
+            id = freeIds[--numFreeIds];
+        else {
+            if (numIds == names.length) {
+                int size = Math.max(numIds * 2, 1);
+                names = Arrays.copyOf(names, size);
+                freeIds = Arrays.copyOf(freeIds, size);
+            }
+            id = numIds++;
+        }
+        PartyName name = new PartyName(occupant, id);
+        names[id] = name;
+        ids.add(name);
+        return id;
+    }
+
+    /**
+     * Takes the given number of seats away from a party name, making its id
+     * unused once it holds no seats.
+     *
+     * @param name the party name.
+     * @param count the number of seats freed.
+     */
+    private void release(PartyName name, int count) {
+        name.seats -= count;
+        if (name.seats == 0) {
+            ids.remove(name.getKey());
+            names[name.id] = null;
+            freeIds[numFreeIds++] = name.id;
+        }
+    }
+
+    /**
+     * Returns the index of the first occupied seat whose position is greater
+     * or equal to the given one.
+     * If there is no such seat, the number of occupied seats is returned.
+     *
+     * @param position the position to search for.
+     * @return the index of the first seat at or after the given position.
+     */
+    private int indexOf(int position) {
+        int low = 0;
+        int high = numOccupied;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * A party name with its id and the number of seats it holds.
+     */
+    private static class PartyName extends KeyedItem<String> {
+
+        /* The id of the name. */
+        final int id;
+        /* The number of seats held under the name. */
+        int seats = 0;
+
+        PartyName(String name, int id) {
+            super(name);
+            this.id = id;
+        }
+    }
+}
@@ -1,3 +1,6 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+
 /**
  * A sorted list with all of its elements in ascending order.
  * The items in this list are ordered based on their search keys.
@@ -13,7 +16,7 @@
  * @param <KT> the type of each item's search key
  */
 public class AscendinglyOrderedList<T extends KeyedItem<KT>, 
-KT extends Comparable<? super KT>> {
+KT extends Comparable<? super KT>> implements OrderedListInterface<T, KT> {
    
     /* The list containing this list's items. */
     private ArrayBasedList<T> items;
@@ -25,6 +28,16 @@ KT extends Comparable<? super KT>> {
         items = new ArrayBasedList<T>();
     }
 
+    /**
+     * Constructs an empty Ascendingly-Ordered List with room for the given
+     * number of items before it needs to grow.
+     *
+     * @param initialCapacity the number of items the list has room for.
+     */
+    public AscendinglyOrderedList(int initialCapacity) {
+        items = new ArrayBasedList<T>(initialCapacity);
+    }
+
     /**
      * Returns true if this list contains no items.
      *
@@ -63,7 +76,10 @@ KT extends Comparable<? super KT>> {
             else
                 high = mid;
         }
-        if (high >= 0 && items.get(low).getKey().equals(searchKey))
+        // The search stops on the last item even when the key is greater.
+        if (high >= 0 && items.get(low).getKey().compareTo(searchKey) < 0)
+            low++;
+        if (low <= high && items.get(low).getKey().equals(searchKey))
             result = low;
         else // Encode failed search result.
             result = (low + 1) * -1;
@@ -169,4 +185,25 @@ KT extends Comparable<? super KT>> {
     public String toString() {
         return items.toString();
     }
+
+    /**
+     * Returns an iterator over the items of this list, in ascending order.
+     * Removing an item through the iterator keeps the list in order.
+     *
+     * @return a fail-fast iterator over this list.
+     */
+    public Iterator<T> iterator() {
+        return items.iterator();
+    }
+
+    /**
+     * Returns a spliterator over the items of this list, in ascending order.
+     * It knows its exact size and splits in halves.
+     *
+     * @return a fail-fast spliterator over this list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return items.spliterator();
+    }
 }
@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
 /**
  * The Auditorium class represents a room in a movie theater that plays movies.
  * <p>
@@ -24,14 +28,33 @@
  */
 public class Auditorium extends KeyedItem<String> {
     
-    /* The number of tickets sold for this Auditorium's movie. */
-    private int ticketsSold = 0;
+    /* The tickets sold for this Auditorium's movie and the money taken in. */
+    private volatile TicketSales sales = TicketSales.NONE;
+    /* The price of a ticket in cents, or -1 to charge the theater's price. */
+    private long ticketCents = -1;
+    /* The sales of the theater this Auditorium is in, or null if none. */
+    private AtomicReference<TicketSales> theaterSales = null;
+    /* The index of free seats this Auditorium reports to, or null if none. */
+    private FreeSeatIndex seatIndex = null;
+    /* The position of this Auditorium in its free-seat index. */
+    private int seatSlot = 0;
     /* The number of rows of seats in this Auditorium. */
     private int rows;
+    /* The number of seats in each row. */
+    private int seatsPerRow;
     /* This auditorium's total number of seats. */
     private int capacity;
-    /* The list of all occupied seats. */
-    private ListInterface<Seat> seats;
+    /* The map of all occupied seats. */
+    private SeatMapInterface seats;
+    /* The seats held by each viewing party, searchable by party name. */
+    private AscendinglyOrderedList<Party, String> parties;
+    /* 
+     * The longest run of free seats in each row. Only kept up to date while
+     * parties are seated together; null otherwise.
+     */
+    private MaxSegmentTree rowRuns = null;
+    /* Restores the saved seating on first use, or null if there is none. */
+    private volatile Consumer<Auditorium> savedSeating = null;
 
     /** 
      * Constructor for an Auditorium.
@@ -43,10 +66,61 @@ public class Auditorium extends KeyedItem<String> {
      * @param seatsPerRow the number of seats per row.
      */
     public Auditorium(String movie, int rows, int seatsPerRow) {
+        this(movie, rows, seatsPerRow, new ArraySeatMap(rows * seatsPerRow));
+    }
+
+    /** 
+     * Constructor for an Auditorium.
+     * Creates an Auditorium that plays the given movie with the given number
+     * of rows of seats and number of seats per row. The occupied seats are
+     * kept track of by the given seat map. The seat map must be empty and 
+     * have room for exactly the number of seats in this Auditorium.
+     *
+     * @param movie the movie being played by this Auditorium.
+     * @param rows the number of rows of seats.
+     * @param seatsPerRow the number of seats per row.
+     * @param seats the seat map that keeps track of occupied seats.
+     */
+    public Auditorium(String movie, int rows, int seatsPerRow,
+    SeatMapInterface seats) {
         super(movie);
         this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
         capacity = rows * seatsPerRow;
-        seats = new ArrayBasedList();
+        if (seats.getCapacity() != capacity || ! seats.isEmpty())
+            throw new TheaterException(
+                "Seat map does not match the seating of " + movie);
+        this.seats = seats;
+        parties = new AscendinglyOrderedList<Party, String>();
+    }
+
+    /**
+     * Returns a new seat map with the given number of seats, all of them
+     * free, of the kind with the given name:
+     * <p>  array  - An ArraySeatMap, the default of an Auditorium.
+     * <p>  bitmap - A BitmapSeatMap, for auditoriums that fill many seats.
+     * <p>  list   - A ListSeatMap over an ArrayBasedList.
+     * <p>  gap    - A ListSeatMap over a GapBufferList, for seats taken one
+     *            after another.
+     * A TheaterException is thrown for any other name.
+     *
+     * @param kind the name of the kind of seat map.
+     * @param capacity the total number of seats.
+     * @return the new seat map.
+     */
+    public static SeatMapInterface newSeatMap(String kind, int capacity) {
+        switch (kind) {
+            case "array":
+                return new ArraySeatMap(capacity);
+            case "bitmap":
+                return new BitmapSeatMap(capacity);
+            case "list":
+                return new ListSeatMap(capacity);
+            case "gap":
+                return new ListSeatMap(capacity, new GapBufferList<Seat>());
+            default:
+                throw new TheaterException("Unknown seat map " + kind);
+        }
     }
 
     /**
@@ -55,14 +129,238 @@ public class Auditorium extends KeyedItem<String> {
      * @return the total number of tickets sold.
      */
     public int getTicketsSold() {
-        return ticketsSold;
+        return (int) sales.getTickets();
+    }
+
+    /**
+     * Returns the tickets sold for this movie and the money taken in for
+     * them. The returned snapshot may be read from any thread.
+     *
+     * @return the ticket sales of this movie.
+     */
+    public TicketSales getSales() {
+        return sales;
+    }
+
+    /**
+     * Returns the price of a ticket for this movie, in cents, if this
+     * Auditorium has a price of its own.
+     *
+     * @return the price of one ticket in cents, or -1 if the theater's price
+     *         is charged.
+     */
+    public long getTicketCents() {
+        return ticketCents;
     }
 
     /**
-     * Resets the number of tickets sold to zero.
+     * Gives this Auditorium a ticket price of its own, charged instead of the
+     * theater's price. A negative price goes back to the theater's price.
+     * Tickets already sold keep the price they were sold at. The price
+     * should be set before this Auditorium is added to a theater, so that a
+     * journaled theater can record it.
+     *
+     * @param price the price of a ticket for this movie.
+     */
+    public void setTicketPrice(double price) {
+        ticketCents = (price >= 0) ? TicketSales.toCents(price) : -1;
+    }
+
+    /**
+     * Resets the number of tickets sold, and the money taken in, to zero.
      */
     public void resetTicketCounter() {
-        ticketsSold = 0;
+        TicketSales old = sales;
+        recordSales(-old.getTickets(), -old.getCents());
+    }
+
+    /**
+     * Returns the seat map that keeps track of this Auditorium's occupied
+     * seats. It is meant for saving the seating, and must not be changed.
+     *
+     * @return the seat map.
+     */
+    SeatMapInterface getSeatMap() {
+        readSavedSeating();
+        return seats;
+    }
+
+    /**
+     * Returns the number of viewing parties seated in this Auditorium.
+     *
+     * @return the number of parties.
+     */
+    int getNumberOfParties() {
+        readSavedSeating();
+        return parties.size();
+    }
+
+    /**
+     * Returns the viewing party at the given index. The parties are in
+     * ascending order of their names. It is meant for saving the seating,
+     * and must not be changed.
+     *
+     * @param index the index of the party.
+     * @return the party at the given index.
+     */
+    Party getParty(int index) {
+        readSavedSeating();
+        return parties.get(index);
+    }
+
+    /**
+     * Seats saved viewing parties in this empty Auditorium and restores its
+     * ticket sales, without selling any tickets.
+     * The owner of each seat is given as one plus the index of its party in
+     * the given names, or zero if the seat is free.
+     *
+     * @param names the names of the parties.
+     * @param paid what each party paid for its tickets.
+     * @param owners the owner of each seat, by position minus one.
+     * @param sold the tickets sold for this movie and the money taken in.
+     */
+    void restoreSeating(String[] names, TicketSales[] paid, int[] owners,
+            TicketSales sold) {
+        if (! isEmpty() || owners.length != capacity)
+            throw new TheaterException(
+                "Cannot restore the seating of " + getKey());
+        Party[] restored = new Party[names.length];
+        for (int i = 0; i < names.length; i++) {
+            restored[i] = new Party(names[i]);
+            restored[i].addPaid((int) paid[i].getTickets(), paid[i].getCents());
+        }
+        for (int position = 1, run; position <= capacity; position += run) {
+            int owner = owners[position - 1];
+            for (run = 1; position + run <= capacity
+                    && owners[position + run - 1] == owner; run++)
+                ;
+            if (owner > 0) {
+                seats.occupy(position, run, names[owner - 1]);
+                restored[owner - 1].addSeats(position, run);
+            }
+        }
+        for (Party party : restored)
+            if (! party.isEmpty())
+                parties.add(party);
+        updateRows(1, capacity);
+        recordSales(sold.getTickets() - sales.getTickets(),
+            sold.getCents() - sales.getCents());
+        occupancyChanged();
+    }
+
+    /**
+     * Restores the ticket sales of this empty Auditorium, and leaves its saved
+     * parties and seats to be restored the first time they are used.
+     * At that point, the given reader is called with this Auditorium and must
+     * restore its seating with restoreSeating(), passing the sales it has by
+     * then. Until then, the seats are never looked at, so an Auditorium that
+     * is never used costs no more than its movie, shape, and sales.
+     *
+     * @param sold the tickets sold for this movie and the money taken in.
+     * @param reader restores the saved seating when it is first used.
+     */
+    void restoreSeatingLater(TicketSales sold, Consumer<Auditorium> reader) {
+        if (! isEmpty())
+            throw new TheaterException(
+                "Cannot restore the seating of " + getKey());
+        recordSales(sold.getTickets() - sales.getTickets(),
+            sold.getCents() - sales.getCents());
+        savedSeating = reader;
+    }
+
+    /**
+     * Returns true if the saved seating of this Auditorium is still waiting
+     * to be restored. The seating is not restored by this call.
+     *
+     * @return true if the seating has not been restored yet.
+     */
+    boolean isSeatingSaved() {
+        return savedSeating != null;
+    }
+
+    /**
+     * Sets the running sales totals of the theater this Auditorium is in.
+     * The sales of this Auditorium are moved from the totals it was in
+     * before, if any, to the given totals. From then on, every sale and
+     * refund here is also added to the given totals.
+     *
+     * @param totals the theater's sales totals, or null if none.
+     */
+    void setTheaterSales(AtomicReference<TicketSales> totals) {
+        TicketSales current = sales;
+        if (theaterSales != null)
+            theaterSales.updateAndGet(total -> total.subtract(current));
+        theaterSales = totals;
+        if (totals != null)
+            totals.updateAndGet(total -> total.add(current));
+    }
+
+    /**
+     * Sets the index of free seats that this Auditorium reports changes in
+     * occupancy to.
+     *
+     * @param index the free-seat index, or null if none.
+     */
+    void setSeatIndex(FreeSeatIndex index) {
+        seatIndex = index;
+    }
+
+    /**
+     * Returns the position of this Auditorium in its free-seat index.
+     * Only the index itself uses the position, while holding its lock.
+     *
+     * @return the position in the index.
+     */
+    int getSeatSlot() {
+        return seatSlot;
+    }
+
+    /**
+     * Sets the position of this Auditorium in its free-seat index.
+     * Only the index itself sets the position, while holding its lock.
+     *
+     * @param slot the position in the index.
+     */
+    void setSeatSlot(int slot) {
+        seatSlot = slot;
+    }
+
+    /**
+     * Restores the saved seating of this Auditorium if that has not been done
+     * yet. An Auditorium may be used from several threads, such as those of a
+     * report, so the seating is restored while holding its lock.
+     */
+    private void readSavedSeating() {
+        if (savedSeating != null)
+            synchronized (this) {
+                Consumer<Auditorium> reader = savedSeating;
+                if (reader != null) {
+                    // Cleared first, since the reader uses this Auditorium.
+                    savedSeating = null;
+                    reader.accept(this);
+                }
+            }
+    }
+
+    /**
+     * Reports a change in occupancy to the free-seat index, if any.
+     */
+    private void occupancyChanged() {
+        if (seatIndex != null)
+            seatIndex.update(this);
+    }
+
+    /**
+     * Adds the given sales to this Auditorium's sales and to the sales of
+     * the theater it is in.
+     *
+     * @param tickets the number of tickets sold, or negative if refunded.
+     * @param cents the money taken in, or negative if refunded.
+     */
+    private void recordSales(long tickets, long cents) {
+        sales = sales.add(tickets, cents);
+        if (theaterSales != null)
+            theaterSales.updateAndGet(total -> total.add(tickets, cents));
     }
 
     /**
@@ -71,6 +369,7 @@ public class Auditorium extends KeyedItem<String> {
      * @return true if all seats are empty.
      */
     public boolean isEmpty() {
+        readSavedSeating();
         return seats.size() == 0;
     }
 
@@ -80,6 +379,7 @@ public class Auditorium extends KeyedItem<String> {
      * @return the number of occupied seats.
      */
     public int getNumberOfViewers() {
+        readSavedSeating();
         return seats.size();
     }
 
@@ -89,6 +389,7 @@ public class Auditorium extends KeyedItem<String> {
      * @return the number of empty seats.
      */
     public int getRemainingSeats() {
+        readSavedSeating();
         return capacity - seats.size();
     }
 
@@ -101,6 +402,43 @@ public class Auditorium extends KeyedItem<String> {
         return rows;
     }
 
+    /** 
+     * Returns the number of seats in each row.
+     *
+     * @return the number of seats per row.
+     */
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * Returns true if parties are seated together in a single row whenever
+     * possible.
+     *
+     * @return true if parties are seated together.
+     */
+    public boolean isSeatingTogether() {
+        return rowRuns != null;
+    }
+
+    /**
+     * Sets whether parties are seated together in a single row.
+     * When seating together, a party is placed in the first run of adjacent
+     * free seats long enough to hold the entire party. If there is no such
+     * run, the party is spread out over the first free seats as usual.
+     *
+     * @param together if true, parties will be seated together.
+     */
+    public void setSeatingTogether(boolean together) {
+        readSavedSeating();
+        if (together && rowRuns == null) {
+            rowRuns = new MaxSegmentTree(rows);
+            updateRows(1, capacity);
+        }
+        else if (! together)
+            rowRuns = null;
+    }
+
     /**
      * Returns the total number of seats in this Auditorium, empty or otherwise.
      *
@@ -111,50 +449,32 @@ public class Auditorium extends KeyedItem<String> {
     }
 
     /**
-     * Adds a viewing party to this Auditorium.
-     * The given party size must be less than or equal to the number of remaining
-     * seats. All party members will be listed under the given name.
+     * Adds a viewing party to this Auditorium that paid the given price for
+     * each ticket.
+     * The given party size must be at least one and less than or equal to
+     * the number of remaining seats. All party members will be listed under
+     * the given name.
      *
      * @param partyName the name of the viewing party.
      * @param partySize the number of seats to occupy.
+     * @param priceCents the price of one ticket, in cents.
      */
-    public void addParty(String partyName, int partySize) {
+    public void addParty(String partyName, int partySize, long priceCents) {
+        if (partySize < 1)
+            throw new TheaterException(
+                "Party size must be greater than zero!");
+        readSavedSeating();
         if (partySize <= (capacity - seats.size())) {
-            ticketsSold += partySize;
-            // Make sure first seat is filled.
-            if (seats.isEmpty() || seats.get(0).getPosition() > 1) {
-                seats.add(0, new Seat(1, partyName));
-                partySize--;
+            Party party = findParty(partyName);
+            if (party == null) {
+                party = new Party(partyName);
+                parties.add(party);
             }
-            while (partySize > 0) {
-                int index = 0;
-                int position = 0;
-                int numSeats = seats.size();
-                int lastPosition = seats.get(numSeats - 1).getPosition();
-                // Check if all occupied seats are clustered together.
-                if (numSeats == lastPosition) {
-                    index = numSeats;
-                    position = numSeats + 1;
-                }
-                // Search for empty gap.
-                else {
-                    // Based on previous checks, we know there is a 
-                    // guaranteed empty seat between first and last
-                    // occupied seats. No need to check if index will
-                    // go out of bounds.
-                    boolean searching = true;
-                    while (searching) {
-                        int currentP = seats.get(index).getPosition();
-                        int nextP = seats.get(++index).getPosition();
-                        if (nextP - currentP > 1) {
-                            position = currentP + 1;
-                            searching = false;
-                        }
-                    } // end while
-                } // end else
-                seats.add(index, new Seat(position, partyName));
-                partySize--;
-            } // end while
+            party.addPaid(partySize, partySize * priceCents);
+            recordSales(partySize, partySize * priceCents);
+            if (rowRuns == null || ! seatTogether(party, partySize))
+                seatScattered(party, partySize);
+            occupancyChanged();
         }
         else
             throw new TheaterException(
@@ -179,17 +499,29 @@ public class Auditorium extends KeyedItem<String> {
      * @param partySize the numebr of viewers of the party to remove.
      */
     public void removeParty(String partyName, int partySize) {
-        int numSeats = seats.size();
-        if (numSeats >= partySize) {
-            int index = 0;
-            while (index < numSeats && partySize > 0) 
-                if (seats.get(index).getOccupant().equals(partyName)) {
-                    seats.remove(index);
-                    partySize--;
-                    numSeats--;
+        readSavedSeating();
+        if (seats.size() >= partySize) {
+            Party party = findParty(partyName);
+            if (party != null) {
+                int count = (party.size() < partySize) ? 
+                    party.size() : partySize;
+                // Free the seats one run of consecutive seats at a time.
+                for (int i = 0, run; i < count; i += run) {
+                    int first = party.getPosition(i);
+                    for (run = 1; i + run < count
+                            && party.getPosition(i + run) == first + run; run++)
+                        ;
+                    seats.vacate(first, run);
                 }
-                else
-                    index++;
+                if (count > 0)
+                    updateRows(party.getPosition(0), 
+                        party.getPosition(count - 1));
+                party.removeFirstSeats(count);
+                if (party.isEmpty())
+                    parties.remove(partyName);
+                partySize -= count;
+                occupancyChanged();
+            }
             if (partySize > 0)
                 throw new TheaterException(
                     "Some party members may not have been removed.");
@@ -199,11 +531,118 @@ public class Auditorium extends KeyedItem<String> {
                 "Party size cannot be greater than number of viewers.");
     }
 
+    /**
+     * Removes a viewing party from this Auditorium and refunds their tickets.
+     * All seats still held by the party are emptied, and every ticket the
+     * party bought is taken off this movie's sales, along with the money
+     * paid for it. A TheaterException is thrown if no seats are held under
+     * the given name.
+     *
+     * @param partyName the name of the viewing party.
+     * @return the tickets refunded and the money paid back.
+     */
+    public TicketSales refundParty(String partyName) {
+        readSavedSeating();
+        Party party = findParty(partyName);
+        if (party == null)
+            throw new TheaterException(
+                "No viewers named " + partyName + " in " + getKey());
+        TicketSales refund = party.getPaid();
+        removeParty(partyName, party.size());
+        recordSales(-refund.getTickets(), -refund.getCents());
+        return refund;
+    }
+
     /**
      * Removes all film viewers leaving all seats empty.
      */
     public void clearAllSeats() {
-        seats.removeAll();
+        readSavedSeating();
+        seats.clear();
+        parties.removeAll();
+        updateRows(1, capacity);
+        occupancyChanged();
+    }
+
+    /**
+     * Seats the given party in the first free seats of this Auditorium.
+     * The free gaps are filled from the front of the auditorium. There must be
+     * enough free seats for the entire party.
+     *
+     * @param party the party to seat.
+     * @param partySize the number of seats to occupy.
+     */
+    private void seatScattered(Party party, int partySize) {
+        int position = 1;
+        while (partySize > 0) {
+            position = seats.nextFree(position);
+            int gap = seats.nextOccupied(position) - position;
+            int count = (gap < partySize) ? gap : partySize;
+            seats.occupy(position, count, party.getKey());
+            party.addSeats(position, count);
+            updateRows(position, position + count - 1);
+            position += count;
+            partySize -= count;
+        }
+    }
+
+    /**
+     * Seats the given party in the first run of adjacent free seats of a 
+     * single row that is long enough to hold the entire party.
+     * Returns false without seating anyone if there is no such run.
+     *
+     * @param party the party to seat.
+     * @param partySize the number of seats to occupy.
+     * @return true if the party was seated.
+     */
+    private boolean seatTogether(Party party, int partySize) {
+        int row = rowRuns.findFirst(partySize);
+        if (row < 0)
+            return false;
+        int end = (row + 1) * seatsPerRow + 1;
+        int position = seats.nextFree(row * seatsPerRow + 1);
+        while (Math.min(seats.nextOccupied(position), end) - position 
+                < partySize)
+            position = seats.nextFree(seats.nextOccupied(position));
+        seats.occupy(position, partySize, party.getKey());
+        party.addSeats(position, partySize);
+        updateRows(position, position + partySize - 1);
+        return true;
+    }
+
+    /**
+     * Recomputes the longest run of free seats of every row holding a seat
+     * between the given positions.
+     * Does nothing unless parties are seated together.
+     *
+     * @param first the position of the first changed seat.
+     * @param last the position of the last changed seat.
+     */
+    private void updateRows(int first, int last) {
+        if (rowRuns != null)
+            for (int r = (first - 1) / seatsPerRow, 
+                    lastRow = (last - 1) / seatsPerRow; r <= lastRow; r++) {
+                int end = (r + 1) * seatsPerRow + 1;
+                int longest = 0;
+                int position = seats.nextFree(r * seatsPerRow + 1);
+                while (position < end) {
+                    int next = Math.min(seats.nextOccupied(position), end);
+                    longest = Math.max(longest, next - position);
+                    position = seats.nextFree(next);
+                }
+                rowRuns.set(r, longest);
+            }
+    }
+
+    /**
+     * Returns the seats held by the viewing party with the given name.
+     *
+     * @param partyName the name of the viewing party.
+     * @return the party's seats, or null if the party holds no seats.
+     */
+    private Party findParty(String partyName) {
+        int index = parties.indexOf(partyName);
+        return (index >= 0) ? parties.get(index) : null;
     }
 
     /**
@@ -216,25 +655,115 @@ public class Auditorium extends KeyedItem<String> {
      * @return the String representation of the seating chart.
      */
     public String generateSeatingChart() {
-        String chart = "";
-        int numSeats = seats.size();
-        int lastSeat = numSeats - 1;
-        int seatsPerRow = capacity / rows;
-        int end = capacity + 1;
-        int occupied = 
-            (seats.isEmpty()) ? end : seats.get(0).getPosition();
-        for (int r = 1, index = 0, position = 1; r <= rows; r++)
+        // Room for a free seat's line with the largest row and seat numbers.
+        int lineLength = 20 + String.valueOf(rows).length() 
+            + String.valueOf(seatsPerRow).length();
+        StringBuilder chart = new StringBuilder(
+            (int) Math.min((long) capacity * lineLength, Integer.MAX_VALUE - 8));
+        try {
+            writeSeatingChart(chart);
+        }
+        catch (IOException ex) {
+            // A StringBuilder never throws an IOException.
+            throw new IllegalStateException(ex);
+        }
+        return chart.toString();
+    } 
+
+    /**
+     * Writes this Auditorium's seating chart to the given destination.
+     * The chart is written one seat at a time and is identical to the String
+     * returned by generateSeatingChart(). Nothing else is buffered, so the 
+     * chart of even the largest Auditorium can be streamed without holding it
+     * in memory.
+     *
+     * @param out the destination to write the seating chart to.
+     * @throws IOException if writing to the destination fails.
+     */
+    public void writeSeatingChart(Appendable out) throws IOException {
+        readSavedSeating();
+        int occupied = seats.nextOccupied(1);
+        for (int r = 1, position = 1; r <= rows; r++) {
+            String row = String.valueOf(r);
             for (int s = 1; s <= seatsPerRow; s++, position++) {
-                chart += "\nRow " + r + " seat " + s;
+                out.append("\nRow ").append(row)
+                    .append(" seat ").append(String.valueOf(s));
                 if (position < occupied)
-                    chart += " is free.";
+                    out.append(" is free.");
                 else {
-                    Seat viewer = seats.get(index);
-                    chart += " used by " + viewer.getOccupant() + "'s party.";
-                    occupied = (index < lastSeat) ? 
-                        seats.get(++index).getPosition() : end;
+                    out.append(" used by ").append(seats.getOccupant(position))
+                        .append("'s party.");
+                    occupied = seats.nextOccupied(position + 1);
                 }
             }
-        return chart;
-    } 
+        }
+    }
+
+    /**
+     * Returns a compact String representation of this Auditorium's seating.
+     * Each row is given on a single line that lists the runs of adjacent seats
+     * that are either free or held by the same party, as follows:
+     * <p>
+     * <b>Row 4: 1-12 free, 13-16 Kirby, 17 Mario, 18-30 free</b>
+     * <p>
+     * The size of the chart grows with the number of rows and parties rather
+     * than with the number of seats.
+     *
+     * @return the compact String representation of the seating chart.
+     */
+    public String generateCompactSeatingChart() {
+        StringBuilder chart = new StringBuilder();
+        try {
+            writeCompactSeatingChart(chart);
+        }
+        catch (IOException ex) {
+            // A StringBuilder never throws an IOException.
+            throw new IllegalStateException(ex);
+        }
+        return chart.toString();
+    }
+
+    /**
+     * Writes this Auditorium's compact seating chart to the given destination.
+     * The chart written is identical to the String returned by 
+     * generateCompactSeatingChart(). Only the occupied seats are visited.
+     *
+     * @param out the destination to write the seating chart to.
+     * @throws IOException if writing to the destination fails.
+     */
+    public void writeCompactSeatingChart(Appendable out) throws IOException {
+        readSavedSeating();
+        int occupied = seats.nextOccupied(1);
+        for (int r = 1, rowStart = 1; r <= rows; r++, rowStart += seatsPerRow) {
+            int rowEnd = rowStart + seatsPerRow - 1;
+            out.append("\nRow ").append(String.valueOf(r)).append(": ");
+            int position = rowStart;
+            while (position <= rowEnd) {
+                if (position > rowStart)
+                    out.append(", ");
+                int last;
+                String occupant;
+                if (position < occupied) {
+                    last = Math.min(occupied - 1, rowEnd);
+                    occupant = "free";
+                }
+                else {
+                    // Extend the run over the party's adjacent seats.
+                    occupant = seats.getOccupant(position);
+                    last = position;
+                    occupied = seats.nextOccupied(position + 1);
+                    while (occupied == last + 1 && occupied <= rowEnd 
+                            && occupant.equals(seats.getOccupant(occupied))) {
+                        last = occupied;
+                        occupied = seats.nextOccupied(occupied + 1);
+                    }
+                }
+                out.append(String.valueOf(position - rowStart + 1));
+                if (last > position)
+                    out.append('-').append(String.valueOf(last - rowStart + 1));
+                out.append(' ').append(occupant);
+                position = last + 1;
+            }
+        }
+    }
 }
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * A seat map that keeps track of occupied seats with a packed bitset.
+ * <p>
+ * Each seat is represented by one bit of a long array. A set bit means the
+ * seat is occupied. The occupant of every seat is kept in a separate array
+ * indexed by position. Searching for the next free or occupied seat skips 64
+ * seats at a time, and occupying or freeing a seat never moves any other seat.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class BitmapSeatMap implements SeatMapInterface {
+
+    /* The occupancy bits. Bit i stands for the seat at position i + 1. */
+    private long[] occupied;
+    /* The occupant of each seat. Index i stands for the seat at position i + 1. */
+    private String[] occupants;
+    /* The total number of seats. */
+    private int capacity;
+    /* The number of occupied seats. */
+    private int numOccupied = 0;
+
+    /**
+     * Constructs a seat map with the given number of seats, all of them free.
+     *
+     * @param capacity the total number of seats.
+     */
+    public BitmapSeatMap(int capacity) {
+        this.capacity = capacity;
+        occupied = new long[(capacity + 63) / 64];
+        occupants = new String[capacity];
+    }
+
+    /**
+     * Returns the total number of seats, free or otherwise.
+     *
+     * @return the total number of seats.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of occupied seats.
+     *
+     * @return the number of occupied seats.
+     */
+    public int size() {
+        return numOccupied;
+    }
+
+    /**
+     * Returns true if no seats are occupied.
+     *
+     * @return true if no seats are occupied.
+     */
+    public boolean isEmpty() {
+        return numOccupied == 0;
+    }
+
+    /**
+     * Returns the position of the first free seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the free seat, or capacity + 1 if there is none.
+     */
+    public int nextFree(int position) {
+        return nextBit(position, true);
+    }
+
+    /**
+     * Returns the position of the first occupied seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the occupied seat, or capacity + 1 if there is none.
+     */
+    public int nextOccupied(int position) {
+        return nextBit(position, false);
+    }
+
+    /**
+     * Returns the name of the occupant of the seat at the given position.
+     *
+     * @param position the position of the seat.
+     * @return the occupant's name, or null if the seat is free.
+     */
+    public String getOccupant(int position) {
+        return (position >= 1 && position <= capacity) ?
+            occupants[position - 1] : null;
+    }
+
+    /**
+     * Occupies a run of consecutive free seats with the given occupant.
+     *
+     * @param first the position of the first seat to occupy.
+     * @param count the number of seats to occupy.
+     * @param occupant the name of the seats' occupant.
+     */
+    public void occupy(int first, int count, String occupant) {
+        for (int bit = first - 1, last = bit + count; bit < last; bit++) {
+            occupied[bit >>> 6] |= 1L << bit;
+            occupants[bit] = occupant;
+        }
+        numOccupied += count;
+    }
+
+    /**
+     * Frees the seat at the given position.
+     *
+     * @param position the position of the seat to free.
+     * @return the name of the seat's former occupant, or null if it was free.
+     */
+    public String vacate(int position) {
+        String occupant = getOccupant(position);
+        if (occupant != null) {
+            int bit = position - 1;
+            occupied[bit >>> 6] &= ~(1L << bit);
+            occupants[bit] = null;
+            numOccupied--;
+        }
+        return occupant;
+    }
+
+    /**
+     * Frees a run of consecutive seats. Seats of the run that are already
+     * free stay free.
+     *
+     * @param first the position of the first seat to free.
+     * @param count the number of seats to free.
+     */
+    public void vacate(int first, int count) {
+        for (int bit = first - 1, last = bit + count; bit < last; bit++)
+            if (occupants[bit] != null) {
+                occupied[bit >>> 6] &= ~(1L << bit);
+                occupants[bit] = null;
+                numOccupied--;
+            }
+    }
+
+    /**
+     * Frees all seats.
+     */
+    public void clear() {
+        Arrays.fill(occupied, 0L);
+        Arrays.fill(occupants, null);
+        numOccupied = 0;
+    }
+
+    /**
+     * Returns the position of the first seat at or after the given one whose
+     * bit matches the one searched for.
+     *
+     * @param position the position at which to start searching.
+     * @param free if true, search for a free seat; otherwise an occupied one.
+     * @return the position found, or capacity + 1 if there is none.
+     */
+    private int nextBit(int position, boolean free) {
+        int end = capacity + 1;
+        if (position < 1)
+            position = 1;
+        if (position > capacity)
+            return end;
+        int bit = position - 1;
+        int word = bit >>> 6;
+        long bits = (free ? ~occupied[word] : occupied[word]) & (-1L << bit);
+        while (bits == 0) {
+            if (++word == occupied.length)
+                return end;
+            bits = free ? ~occupied[word] : occupied[word];
+        }
+        int found = (word << 6) + Long.numberOfTrailingZeros(bits) + 1;
+        return (found <= capacity) ? found : end;
+    }
+}
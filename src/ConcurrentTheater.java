@@ -0,0 +1,467 @@
+import java.io.IOException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A Theater that may be used by several box-office terminals at once.
+ * <p>
+ * The theater's state is split between three kinds of locks:
+ * <p>  - The box-office lock guards the customer lines, the next-line index,
+ *        the table of customers, and the ticket price. It is only held long
+ *        enough to enqueue or dequeue a customer.
+ * <p>  - The auditorium list lock guards the list of auditoriums. Looking up
+ *        an auditorium takes a shared read lock; adding or removing one takes
+ *        the exclusive write lock.
+ * <p>  - Each Auditorium is its own lock and guards its seats and ticket
+ *        count. Sales for different movies never wait on each other.
+ * <p>  - The index of auditoriums by free seats is its own lock. It is only
+ *        held briefly, to record a change in occupancy or to answer a query,
+ *        and no other lock is taken while holding it.
+ * <p>
+ * Locks are always taken in that order, and the box-office lock is never
+ * held while seating a party. It is only held with an auditorium lock to
+ * give back the seats of a customer removed while being seated.
+ * <p>
+ * The theater's sales totals are immutable snapshots swapped in atomically,
+ * so getSales() and getTicketSales() never wait on any lock.
+ * <p>
+ * Since a customer is dequeued before their auditorium is locked, another
+ * terminal may sell the last seats in between. An auditorium is never
+ * oversold: if the customer's party no longer fits, seatNextCustomer removes
+ * the customer from the theater and throws a TheaterException. Terminals
+ * should check hasEnoughSeats() first, as the TheaterDriver does, and treat
+ * the exception as the movie having sold out.
+ * <p>
+ * Likewise, another terminal may remove or refund a customer while they are
+ * being seated. Such a customer leaves as if from their line: nothing is
+ * charged, and seatNextCustomer undoes the seating once it sees that the
+ * customer is gone. Their name stays taken until their seats are given back,
+ * so a new customer of the same name cannot be mistaken for them.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class ConcurrentTheater extends Theater {
+
+    /* Guards the lines, next-line index, customers, and ticket price. */
+    private final Object boxOffice = new Object();
+    /* Guards the list of auditoriums. */
+    private final ReadWriteLock screens = new ReentrantReadWriteLock();
+    /* The customers dequeued but not yet seated, by name. Guarded by the
+       box-office lock. */
+    private final KeyedHashTable<Customer, String> seating =
+        new KeyedHashTable<Customer, String>();
+
+    /**
+     * Constructor for a ConcurrentTheater.
+     * Creates a theater the same way as the Theater constructor.
+     *
+     * @param ticketPrice the price of one ticket.
+     */
+    public ConcurrentTheater(double ticketPrice) {
+        super(ticketPrice);
+    }
+
+    /**
+     * Constructor for a ConcurrentTheater.
+     * Creates a theater the same way as the Theater constructor.
+     *
+     * @param ticketPrice the price of one ticket.
+     * @param useTrees if true, ordered collections are kept in balanced trees.
+     */
+    public ConcurrentTheater(double ticketPrice, boolean useTrees) {
+        super(ticketPrice, useTrees);
+    }
+
+    /*
+     * ************************************************************************
+     * Box Office
+     * ************************************************************************
+     */
+
+    @Override
+    public double getTicketPrice() {
+        synchronized (boxOffice) {
+            return super.getTicketPrice();
+        }
+    }
+
+    @Override
+    public void setTicketPrice(double price) {
+        synchronized (boxOffice) {
+            super.setTicketPrice(price);
+        }
+    }
+
+    @Override
+    public int getNextLine() {
+        synchronized (boxOffice) {
+            return super.getNextLine();
+        }
+    }
+
+    @Override
+    public void setNextLine(int nextLine) {
+        synchronized (boxOffice) {
+            super.setNextLine(nextLine);
+        }
+    }
+
+    @Override
+    public int getNumberOfLines() {
+        synchronized (boxOffice) {
+            return super.getNumberOfLines();
+        }
+    }
+
+    @Override
+    public void addLine(String lineName) {
+        synchronized (boxOffice) {
+            super.addLine(lineName);
+        }
+    }
+
+    @Override
+    public void addLine(String lineName, double weight, boolean express) {
+        synchronized (boxOffice) {
+            super.addLine(lineName, weight, express);
+        }
+    }
+
+    @Override
+    public void addLine(Line line) {
+        synchronized (boxOffice) {
+            super.addLine(line);
+        }
+    }
+
+    @Override
+    public String getLineInfo(int lineIndex) {
+        synchronized (boxOffice) {
+            return super.getLineInfo(lineIndex);
+        }
+    }
+
+    @Override
+    public boolean allLinesEmpty() {
+        synchronized (boxOffice) {
+            return super.allLinesEmpty();
+        }
+    }
+
+    @Override
+    public Line enqueueCustomer(Customer customer, boolean hasChild) {
+        synchronized (boxOffice) {
+            if (seating.contains(customer.getKey()))
+                throw new TheaterException("Customer " + customer.getKey()
+                    + " is already in the theater!");
+            return super.enqueueCustomer(customer, hasChild);
+        }
+    }
+
+    @Override
+    public boolean containsCustomer(String name) {
+        synchronized (boxOffice) {
+            return super.containsCustomer(name);
+        }
+    }
+
+    @Override
+    public OrderedListInterface<Customer, String> getCustomers() {
+        synchronized (boxOffice) {
+            return super.getCustomers();
+        }
+    }
+
+    @Override
+    public Customer getNextCustomer() {
+        synchronized (boxOffice) {
+            return super.getNextCustomer();
+        }
+    }
+
+    @Override
+    public void removeFromLine() {
+        synchronized (boxOffice) {
+            super.removeFromLine();
+        }
+    }
+
+    /*
+     * ************************************************************************
+     * Auditoriums
+     * ************************************************************************
+     */
+
+    /**
+     * Dequeues the next customer in the current line and seats them in their
+     * desired auditorium.
+     * If the auditorium no longer has enough empty seats for the entire
+     * party, the customer is removed from the theater and a TheaterException
+     * is thrown. If another terminal removed the customer while they were
+     * being seated, their seats are given back and their tickets refunded.
+     *
+     * @return the customer that has been served.
+     */
+    @Override
+    public Customer seatNextCustomer() {
+        Customer next;
+        long priceCents;
+        synchronized (boxOffice) {
+            next = dequeueNextCustomer();
+            seating.add(next);
+            priceCents = getTicketCents();
+        }
+        String name = next.getKey();
+        Auditorium aud;
+        try {
+            aud = findAuditorium(next.getMovie());
+            if (aud.getTicketCents() >= 0)
+                priceCents = aud.getTicketCents();
+            synchronized (aud) {
+                aud.addParty(name, next.getPartySize(), priceCents);
+            }
+        }
+        catch (TheaterException | ListException ex) {
+            synchronized (boxOffice) {
+                seating.remove(name);
+                if (containsCustomer(name))
+                    removeCustomer(name);
+            }
+            throw new TheaterException(ex.getMessage());
+        }
+        synchronized (boxOffice) {
+            // The name is kept from being reused until the seats are given
+            // back, so the party refunded can only be the one just seated.
+            if (! containsCustomer(name))
+                synchronized (aud) {
+                    aud.refundParty(name);
+                }
+            seating.remove(name);
+        }
+        return next;
+    }
+
+    @Override
+    public void removeFromTheater(String name) {
+        Customer customer;
+        synchronized (boxOffice) {
+            try {
+                customer = removeCustomer(name);
+            }
+            catch (ListException ex) {
+                throw new TheaterException(
+                    "This customer not in Movie Theater!");
+            }
+            // seatNextCustomer gives back the seats of a customer it is
+            // still seating.
+            if (seating.contains(name))
+                return;
+        }
+        Auditorium aud = findAuditorium(customer.getMovie());
+        synchronized (aud) {
+            aud.removeParty(name, customer.getPartySize());
+        }
+    }
+
+    @Override
+    public TicketSales refundCustomer(String name) {
+        Customer customer;
+        synchronized (boxOffice) {
+            try {
+                customer = removeCustomer(name);
+            }
+            catch (ListException ex) {
+                throw new TheaterException(
+                    "This customer not in Movie Theater!");
+            }
+            // A customer still being seated has not been charged yet.
+            if (seating.contains(name))
+                return TicketSales.NONE;
+        }
+        Auditorium aud = findAuditorium(customer.getMovie());
+        synchronized (aud) {
+            return aud.refundParty(name);
+        }
+    }
+
+    @Override
+    public boolean hasEnoughSeats(String movie, int partySize) {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            return aud.getRemainingSeats() >= partySize;
+        }
+    }
+
+    @Override
+    public int getNumberOfTicketsSold(String movie) {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            return aud.getTicketsSold();
+        }
+    }
+
+    @Override
+    public String findFirstAvailableMovie(int partySize) {
+        screens.readLock().lock();
+        try {
+            return super.findFirstAvailableMovie(partySize);
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String findBestAvailableMovie(int partySize) {
+        screens.readLock().lock();
+        try {
+            return super.findBestAvailableMovie(partySize);
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TicketSales getSales(String movie) {
+        return findAuditorium(movie).getSales();
+    }
+
+    @Override
+    public boolean allMoviesEmpty() {
+        screens.readLock().lock();
+        try {
+            for (int i = 0, numMovies = super.getNumberOfMovies();
+                    i < numMovies; i++) {
+                Auditorium current = getAuditorium(i);
+                synchronized (current) {
+                    if (! current.isEmpty())
+                        return false;
+                }
+            }
+            return true;
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String getSeatingChart(String movie) {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            return aud.generateSeatingChart();
+        }
+    }
+
+    @Override
+    public void writeSeatingChart(String movie, Appendable out)
+        throws IOException {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            aud.writeSeatingChart(out);
+        }
+    }
+
+    @Override
+    public String getCompactSeatingChart(String movie) {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            return aud.generateCompactSeatingChart();
+        }
+    }
+
+    @Override
+    public void writeCompactSeatingChart(String movie, Appendable out)
+        throws IOException {
+        Auditorium aud = findAuditorium(movie);
+        synchronized (aud) {
+            aud.writeCompactSeatingChart(out);
+        }
+    }
+
+    @Override
+    public int getNumberOfMovies() {
+        screens.readLock().lock();
+        try {
+            return super.getNumberOfMovies();
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsMovie(String movie) {
+        screens.readLock().lock();
+        try {
+            return super.containsMovie(movie);
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String[] getMovies() {
+        screens.readLock().lock();
+        try {
+            return super.getMovies();
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAuditorium(Auditorium auditorium) {
+        screens.writeLock().lock();
+        try {
+            super.addAuditorium(auditorium);
+        }
+        finally {
+            screens.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeAuditorium(String movie) {
+        screens.writeLock().lock();
+        try {
+            super.removeAuditorium(movie);
+        }
+        finally {
+            screens.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected Auditorium[] getAuditoriums() {
+        screens.readLock().lock();
+        try {
+            return super.getAuditoriums();
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the auditorium playing the given movie.
+     * Only the auditorium list is locked while searching; the returned
+     * auditorium must be locked by the caller before use.
+     *
+     * @param movie the movie being played by the auditorium.
+     * @return the auditorium playing the movie.
+     */
+    private Auditorium findAuditorium(String movie) {
+        screens.readLock().lock();
+        try {
+            return getAuditorium(movie);
+        }
+        finally {
+            screens.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * An index of the auditoriums of a theater by their number of free seats.
+ * <p>
+ * The index answers two questions in logarithmic time:
+ * <p>  - Which is the first auditorium, in the order of the theater's list,
+ *        with at least a given number of free seats? A MaxSegmentTree over
+ *        the free seats of each auditorium finds it.
+ * <p>  - Which auditorium has the fewest free seats that are still enough?
+ *        A TreeOrderedList keyed by free seats, then by movie, finds it.
+ * <p>
+ * Auditoriums in the list report their own changes in occupancy to the
+ * index, which must be set on them with setSeatIndex() as they are added.
+ * Adding or removing an auditorium shifts the positions of the others, so
+ * the index is then marked stale and rebuilt from the theater's list on the
+ * next query.
+ * <p>
+ * All methods are synchronized, so auditoriums locked separately may report
+ * their changes at the same time.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class FreeSeatIndex {
+
+    /* The auditoriums being indexed. */
+    private OrderedListInterface<Auditorium, String> auditoriums;
+    /* The free seats of each auditorium, by position in the list. */
+    private MaxSegmentTree freeSeats;
+    /* The auditoriums ordered by free seats, then by movie. */
+    private TreeOrderedList<Entry, Key> bySize;
+    /* Whether the index must be rebuilt before it is used. */
+    private boolean stale;
+
+    /**
+     * Constructs an index over the given list of auditoriums.
+     * The index is built on the first query.
+     *
+     * @param auditoriums the list of auditoriums to index.
+     */
+    public FreeSeatIndex(OrderedListInterface<Auditorium, String> auditoriums) {
+        this.auditoriums = auditoriums;
+        stale = true;
+    }
+
+    /**
+     * Marks this index as stale after an auditorium was added to or removed
+     * from the list.
+     */
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Returns the first auditorium in the list with at least the given
+     * number of free seats.
+     *
+     * @param partySize the number of seats needed.
+     * @return the first auditorium with enough seats, or null if none.
+     */
+    public synchronized Auditorium findFirstFit(int partySize) {
+        rebuildIfStale();
+        int slot = freeSeats.findFirst(partySize);
+        return (slot >= 0 && slot < freeSeats.size()) ?
+            auditoriums.get(slot) : null;
+    }
+
+    /**
+     * Returns the auditorium with the fewest free seats that are at least
+     * the given number. Ties go to the first movie in alphabetical order.
+     *
+     * @param partySize the number of seats needed.
+     * @return the auditorium that fits best, or null if none has enough seats.
+     */
+    public synchronized Auditorium findBestFit(int partySize) {
+        rebuildIfStale();
+        int index = bySize.indexOf(new Key(Math.max(partySize, 0), ""));
+        if (index < 0)
+            index = -index - 1;
+        return (index < bySize.size()) ? bySize.get(index).auditorium : null;
+    }
+
+    /**
+     * Records a change in the number of free seats of an indexed auditorium.
+     * Changes reported while this index is stale are picked up by the
+     * rebuild.
+     *
+     * @param auditorium the auditorium whose occupancy changed.
+     */
+    synchronized void update(Auditorium auditorium) {
+        if (stale)
+            return;
+        int slot = auditorium.getSeatSlot();
+        int oldFree = freeSeats.get(slot);
+        int newFree = auditorium.getRemainingSeats();
+        if (oldFree != newFree) {
+            bySize.remove(new Key(oldFree, auditorium.getKey()));
+            bySize.add(new Entry(new Key(newFree, auditorium.getKey()),
+                auditorium));
+            freeSeats.set(slot, newFree);
+        }
+    }
+
+    /**
+     * Rebuilds this index from the list of auditoriums if it is stale.
+     */
+    private void rebuildIfStale() {
+        if (! stale)
+            return;
+        freeSeats = new MaxSegmentTree(auditoriums.size());
+        bySize = new TreeOrderedList<Entry, Key>();
+        int i = 0;
+        for (Auditorium aud : auditoriums) {
+            aud.setSeatSlot(i);
+            int free = aud.getRemainingSeats();
+            freeSeats.set(i, free);
+            bySize.add(new Entry(new Key(free, aud.getKey()), aud));
+            i++;
+        }
+        stale = false;
+    }
+
+    /**
+     * The search key of an auditorium in the index: its free seats, then its
+     * movie.
+     */
+    private static class Key implements Comparable<Key> {
+
+        /* The number of free seats. */
+        final int free;
+        /* The movie playing. */
+        final String movie;
+
+        Key(int free, String movie) {
+            this.free = free;
+            this.movie = movie;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int comparison = Integer.compare(free, other.free);
+            return (comparison != 0) ? comparison : movie.compareTo(other.movie);
+        }
+    }
+
+    /**
+     * An auditorium filed under its key.
+     */
+    private static class Entry extends KeyedItem<Key> {
+
+        /* The auditorium. */
+        final Auditorium auditorium;
+
+        Entry(Key key, Auditorium auditorium) {
+            super(key);
+            this.auditorium = auditorium;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A gap-buffer implementation of the ListInterface.
+ * <p>
+ * The items are held in an array with a single run of free slots, the gap,
+ * kept at the index of the last insertion or removal. Adding or removing an
+ * item moves the gap to its index first, shifting only the items between
+ * the old and the new gap. Edits at or near the same index, such as seats
+ * taken one after another at the end of a block, shift almost nothing.
+ * Edits that jump around the list cost as much as in an ArrayBasedList.
+ * <p>
+ * The array doubles in size whenever the gap is used up. Iterators and
+ * spliterators are fail-fast, as in an ArrayBasedList.
+ *
+ * @author agent
+ * @version 2026.10.17
+ *
+ * @param <T> the type of items held in this collection
+ */
+public class GapBufferList<T> implements ListInterface<T> {
+
+    /* The array containing this list's items and the gap. */
+    private Object[] buffer;
+    /* The index of the first slot of the gap. */
+    private int gapStart;
+    /* The index after the last slot of the gap. */
+    private int gapEnd;
+    /* The number of times this list has been structurally changed. */
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty list with an initial capacity of ten.
+     */
+    public GapBufferList() {
+        this(ArrayBasedList.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty list with room for the given number of items
+     * before it needs to grow.
+     *
+     * @param initialCapacity the number of items the list has room for.
+     */
+    public GapBufferList(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new ListException(
+                "Illegal list capacity: " + initialCapacity);
+        buffer = new Object[initialCapacity];
+        gapStart = 0;
+        gapEnd = initialCapacity;
+    }
+
+    /**
+     * Returns true if this list contains no items.
+     *
+     * @return true if this list contains no items.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the total number of items in this list.
+     *
+     * @return the total number of items.
+     */
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * Returns the item at the specified position in this list.
+     *
+     * @param index index of the item to return
+     * @return the item at the specified position in this list
+     */
+    public T get(int index) {
+        if (index >= 0 && index < gapStart)
+            return slot(index);
+        else if (index >= gapStart && index < size())
+            return slot(index + gapEnd - gapStart);
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List index " + index + " out of bounds on get.");
+    }
+
+    /**
+     * Inserts the specified item at the specified position in this list.
+     * The gap is moved to that position first.
+     *
+     * @param index index at which the specified item is to be inserted
+     * @param item item to be inserted
+     */
+    public void add(int index, T item) {
+        if (index >= 0 && index <= size()) {
+            ensureGap(1);
+            moveGap(index);
+            buffer[gapStart++] = item;
+            modCount++;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+               "List index " + index + " out of bounds on add.");
+    }
+
+    /**
+     * Inserts all of the specified items at the specified position in this
+     * list, in the order they are given.
+     * The gap is moved to that position first.
+     *
+     * @param index index at which the first item is to be inserted
+     * @param newItems items to be inserted
+     */
+    public void addAll(int index, T[] newItems) {
+        if (index >= 0 && index <= size()) {
+            ensureGap(newItems.length);
+            moveGap(index);
+            System.arraycopy(newItems, 0, buffer, gapStart, newItems.length);
+            gapStart += newItems.length;
+            modCount++;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+               "List index " + index + " out of bounds on add.");
+    }
+
+    /**
+     * Removes the item at the specified position in this list.
+     * The gap is moved to that position first.
+     *
+     * @param index the index of the item to be removed
+     * @return the removed item
+     */
+    public T remove(int index) {
+        if (index >= 0 && index < size()) {
+            moveGap(index);
+            T item = slot(gapEnd);
+            buffer[gapEnd++] = null;
+            modCount++;
+            return item;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List index " + index + " out of bounds on remove.");
+    }
+
+    /**
+     * Removes the items from the first index, inclusive, to the second
+     * index, exclusive. The gap is moved to the first index and widened
+     * over the removed items.
+     *
+     * @param fromIndex the index of the first item to be removed
+     * @param toIndex the index after the last item to be removed
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex >= 0 && fromIndex <= toIndex && toIndex <= size()) {
+            moveGap(fromIndex);
+            int count = toIndex - fromIndex;
+            Arrays.fill(buffer, gapEnd, gapEnd + count, null);
+            gapEnd += count;
+            modCount++;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List range " + fromIndex + " to " + toIndex
+                + " out of bounds on remove.");
+    }
+
+    /**
+     * Removes every item of this list that matches the given filter.
+     * The gap is moved to the end of the list, and the items that are kept
+     * move left in a single pass, in order.
+     *
+     * @param filter returns true for the items to be removed
+     * @return the number of items removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int numItems = size();
+        moveGap(numItems);
+        int kept = 0;
+        for (int pos = 0; pos < numItems; pos++)
+            if (! filter.test(slot(pos)))
+                buffer[kept++] = buffer[pos];
+        Arrays.fill(buffer, kept, numItems, null);
+        gapStart = kept;
+        if (kept < numItems)
+            modCount++;
+        return numItems - kept;
+    }
+
+    /**
+     * Removes all of the items from this list.
+     * The list will be empty after this call returns, and keeps its
+     * capacity.
+     */
+    public void removeAll() {
+        Arrays.fill(buffer, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the items of this list, in order.
+     *
+     * @return a fail-fast iterator over this list.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the items of this list, in order.
+     * It knows its exact size and splits in halves.
+     *
+     * @return a fail-fast spliterator over this list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Splitr(0, -1, 0);
+    }
+
+    /**
+     * Returns the String representation of this list.
+     * The returned String will include the String representation of all of
+     * this list's items.
+     *
+     * @return the String representation of this list
+     */
+    @Override
+    public String toString() {
+        StringBuilder listString = new StringBuilder();
+        for (int i = 0, numItems = size(); i < numItems; i++)
+            listString.append(get(i).toString()).append('\n');
+        return listString.toString();
+    }
+
+    /**
+     * Moves the gap so that it starts at the given index.
+     * The slots the items are moved out of are cleared.
+     *
+     * @param index the new start of the gap
+     */
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - count, count);
+            Arrays.fill(buffer, index, Math.min(gapStart, gapEnd - count),
+                null);
+            gapStart = index;
+            gapEnd -= count;
+        }
+        else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            Arrays.fill(buffer, Math.max(gapEnd, index), gapEnd + count,
+                null);
+            gapStart = index;
+            gapEnd += count;
+        }
+    }
+
+    /**
+     * Makes sure the gap has room for at least the given number of items.
+     * If the array must grow, its size is at least doubled, and the items
+     * after the gap move to the end of the new array.
+     *
+     * @param count the number of items the gap must have room for
+     */
+    private void ensureGap(int count) {
+        if (gapEnd - gapStart >= count)
+            return;
+        int numItems = size();
+        int tail = buffer.length - gapEnd;
+        Object[] grown = new Object[Math.max(buffer.length * 2,
+            numItems + count)];
+        System.arraycopy(buffer, 0, grown, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, grown, grown.length - tail, tail);
+        gapEnd = grown.length - tail;
+        buffer = grown;
+    }
+
+    /**
+     * Returns the item in the given slot of the array, which must be outside
+     * the gap.
+     *
+     * @param pos the position in the array.
+     * @return the item.
+     */
+    @SuppressWarnings("unchecked")
+    private T slot(int pos) {
+        // Only items of type T are ever stored outside the gap.
+        return (T) buffer[pos];
+    }
+
+    /**
+     * Returns the item at the given index, which must be in range.
+     *
+     * @param index the index of the item.
+     * @return the item.
+     */
+    private T itemAt(int index) {
+        return slot((index < gapStart) ? index : index + gapEnd - gapStart);
+    }
+
+    /**
+     * An iterator over the items of this list.
+     */
+    private class Itr implements Iterator<T> {
+
+        /* The index of the next item to return. */
+        private int cursor = 0;
+        /* The index of the last item returned, or -1 if none. */
+        private int last = -1;
+        /* The modification count this iterator expects. */
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor < size();
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (cursor >= size())
+                throw new NoSuchElementException();
+            last = cursor++;
+            return itemAt(last);
+        }
+
+        public void remove() {
+            if (last < 0)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            GapBufferList.this.remove(last);
+            cursor = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * A spliterator over a range of the items of this list.
+     * The range is bound to the list's size when it is first used.
+     */
+    private class Splitr implements Spliterator<T> {
+
+        /* The index of the next item to return. */
+        private int index;
+        /* The index after the last item, or -1 until first used. */
+        private int fence;
+        /* The modification count this spliterator expects. */
+        private int expectedModCount;
+
+        Splitr(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size();
+            }
+            return fence;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int middle = (index + high) >>> 1;
+            if (index >= middle)
+                return null;
+            Spliterator<T> prefix = new Splitr(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= getFence())
+                return false;
+            action.accept(itemAt(index++));
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            int high = getFence();
+            // The items before the gap, then the items after it.
+            int split = Math.min(Math.max(gapStart, index), high);
+            int offset = gapEnd - gapStart;
+            for (; index < split; index++)
+                action.accept(slot(index));
+            for (; index < high; index++)
+                action.accept(slot(index + offset));
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of integer ids, each with a key that may be changed
+ * after the id was added.
+ * <p>
+ * The id with the smallest key is found in constant time. Adding an id and
+ * changing its key take logarithmic time, since the heap remembers where
+ * each id sits. Ids are small non-negative integers, such as list indexes.
+ * Ties between equal keys go to the smallest id.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class IndexedMinHeap {
+
+    /* The ids in heap order. The root is at index 0. */
+    private int[] heap;
+    /* The heap index of each id, or -1 if the id is not in the heap. */
+    private int[] positions;
+    /* The key of each id. */
+    private double[] keys;
+    /* The number of ids in the heap. */
+    private int numIds;
+
+    /**
+     * Constructs an empty heap.
+     */
+    public IndexedMinHeap() {
+        heap = new int[4];
+        positions = new int[4];
+        keys = new double[4];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Returns true if there are no ids in this heap.
+     *
+     * @return true if there are no ids.
+     */
+    public boolean isEmpty() {
+        return numIds == 0;
+    }
+
+    /**
+     * Returns the number of ids in this heap.
+     *
+     * @return the number of ids.
+     */
+    public int size() {
+        return numIds;
+    }
+
+    /**
+     * Returns true if the given id is in this heap.
+     *
+     * @param id the id to look for.
+     * @return true if the id is in this heap.
+     */
+    public boolean contains(int id) {
+        return id >= 0 && id < positions.length && positions[id] >= 0;
+    }
+
+    /**
+     * Adds an id with the given key to this heap.
+     * Throws a ListException if the id is already in the heap.
+     *
+     * @param id the non-negative id to add.
+     * @param key the key of the id.
+     */
+    public void add(int id, double key) {
+        if (id < 0)
+            throw new ListIndexOutOfBoundsException(
+                "Heap id " + id + " out of bounds on add.");
+        if (contains(id))
+            throw new ListException("Id already in heap.");
+        if (id >= positions.length) {
+            int length = Math.max(id + 1, positions.length * 2);
+            int oldLength = positions.length;
+            positions = Arrays.copyOf(positions, length);
+            keys = Arrays.copyOf(keys, length);
+            Arrays.fill(positions, oldLength, length, -1);
+        }
+        if (numIds == heap.length)
+            heap = Arrays.copyOf(heap, numIds * 2);
+        keys[id] = key;
+        heap[numIds] = id;
+        positions[id] = numIds;
+        siftUp(numIds++);
+    }
+
+    /**
+     * Returns the id with the smallest key.
+     * Throws a ListException if this heap is empty.
+     *
+     * @return the id with the smallest key.
+     */
+    public int peek() {
+        if (numIds > 0)
+            return heap[0];
+        else
+            throw new ListException("Heap is empty. Nothing to peek.");
+    }
+
+    /**
+     * Returns the key of the given id.
+     * Throws a ListException if the id is not in this heap.
+     *
+     * @param id the id in this heap.
+     * @return the key of the id.
+     */
+    public double getKey(int id) {
+        if (contains(id))
+            return keys[id];
+        else
+            throw new ListException("Id not found in heap.");
+    }
+
+    /**
+     * Changes the key of the given id and restores the heap order.
+     * Throws a ListException if the id is not in this heap.
+     *
+     * @param id the id in this heap.
+     * @param key the new key of the id.
+     */
+    public void setKey(int id, double key) {
+        if (! contains(id))
+            throw new ListException("Id not found in heap.");
+        double oldKey = keys[id];
+        keys[id] = key;
+        if (key < oldKey)
+            siftUp(positions[id]);
+        else if (key > oldKey)
+            siftDown(positions[id]);
+    }
+
+    /**
+     * Moves the id at the given heap index up until its parent is smaller.
+     *
+     * @param index the heap index of the id.
+     */
+    private void siftUp(int index) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (! precedes(id, heap[parent]))
+                break;
+            move(heap[parent], index);
+            index = parent;
+        }
+        move(id, index);
+    }
+
+    /**
+     * Moves the id at the given heap index down until its children are larger.
+     *
+     * @param index the heap index of the id.
+     */
+    private void siftDown(int index) {
+        int id = heap[index];
+        for (int child; (child = index * 2 + 1) < numIds; index = child) {
+            if (child + 1 < numIds && precedes(heap[child + 1], heap[child]))
+                child++;
+            if (! precedes(heap[child], id))
+                break;
+            move(heap[child], index);
+        }
+        move(id, index);
+    }
+
+    /**
+     * Puts an id at the given heap index.
+     *
+     * @param id the id to put.
+     * @param index the heap index.
+     */
+    private void move(int id, int index) {
+        heap[index] = id;
+        positions[id] = index;
+    }
+
+    /**
+     * Returns true if the first id belongs above the second one in the heap.
+     *
+     * @param first the first id.
+     * @param second the second id.
+     * @return true if the first id has the smaller key, or an equal key and
+     *         the smaller id.
+     */
+    private boolean precedes(int first, int second) {
+        return keys[first] < keys[second]
+            || (keys[first] == keys[second] && first < second);
+    }
+}
@@ -0,0 +1,456 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only file of binary records.
+ * <p>
+ * Each record is a type byte followed by fields written with the put
+ * methods, between a call to begin() and a call to end(). On disk, every
+ * record is preceded by its length and a CRC32 checksum of its contents, so a
+ * record that was only partly written when the program stopped is detected
+ * and dropped along with anything after it.
+ * <p>
+ * Records are collected in memory and written out as a group. The group is
+ * forced to the storage device once the given number of records have been
+ * ended, or when commit() or close() is called. This amortizes the cost of
+ * a FileChannel.force() over many records, at the price of losing at most
+ * one group of records in a crash.
+ * <p>
+ * Records are read back in order through a Reader. Before the first record
+ * is appended, the journal is cut back to the end of its last whole record.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class Journal implements Closeable {
+
+    /* The magic number at the start of every journal file. */
+    private static final int MAGIC = 0x4D544A31;
+    /* The number of bytes in the file header. */
+    private static final int HEADER_SIZE = 4;
+    /* The number of bytes before the contents of each record. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /* The file holding this journal. */
+    private FileChannel channel;
+    /* The records waiting to be written. */
+    private ByteBuffer buffer;
+    /* The buffer position of the record being written, or -1 if none. */
+    private int recordStart = -1;
+    /* The number of records ended since the last commit. */
+    private int pending = 0;
+    /* The number of records per group commit. */
+    private int groupSize;
+    /* The file position after the last whole record, or -1 if unknown. */
+    private long end = -1;
+    /* Computes the checksums of records. */
+    private CRC32 checksum = new CRC32();
+
+    /**
+     * Opens the journal in the file with the given name, creating the file if
+     * it does not exist.
+     * Throws an IOException if the file exists but is not a journal.
+     *
+     * @param fileName the name of the journal file.
+     * @param groupSize the number of records written per group commit.
+     * @throws IOException if the file cannot be opened.
+     */
+    public Journal(String fileName, int groupSize) throws IOException {
+        this.groupSize = Math.max(1, groupSize);
+        channel = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocate(1 << 16);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        if (channel.size() == 0) {
+            header.putInt(MAGIC).flip();
+            channel.write(header, 0);
+            end = HEADER_SIZE;
+        }
+        else if (channel.read(header, 0) < HEADER_SIZE
+                || header.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(fileName + " is not a journal.");
+        }
+    }
+
+    /**
+     * Returns true if the journal holds no records.
+     *
+     * @return true if there are no records.
+     * @throws IOException if the file cannot be read.
+     */
+    public boolean isEmpty() throws IOException {
+        return channel.size() <= HEADER_SIZE && buffer.position() == 0;
+    }
+
+    /**
+     * Returns a reader of the records written to the file so far, starting
+     * from the first.
+     *
+     * @return a reader of the records.
+     */
+    public Reader read() {
+        return new Reader();
+    }
+
+    /**
+     * Starts a new record of the given type.
+     *
+     * @param type the type of the record.
+     * @throws IOException if earlier records cannot be written.
+     */
+    public void begin(byte type) throws IOException {
+        if (recordStart >= 0)
+            throw new IllegalStateException("Record already begun.");
+        if (end < 0) {
+            // Find the end of the last whole record, dropping a torn one.
+            Reader reader = new Reader();
+            while (reader.next() >= 0)
+                ;
+        }
+        reserve(RECORD_HEADER_SIZE + 1);
+        recordStart = buffer.position();
+        buffer.position(recordStart + RECORD_HEADER_SIZE);
+        buffer.put(type);
+    }
+
+    /**
+     * Adds an integer to the current record.
+     *
+     * @param value the integer.
+     */
+    public void putInt(int value) {
+        reserve(4);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Adds a long to the current record.
+     *
+     * @param value the long.
+     */
+    public void putLong(long value) {
+        reserve(8);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Adds a double to the current record.
+     *
+     * @param value the double.
+     */
+    public void putDouble(double value) {
+        reserve(8);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Adds a boolean to the current record.
+     *
+     * @param value the boolean.
+     */
+    public void putBoolean(boolean value) {
+        reserve(1);
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    /**
+     * Adds a String to the current record.
+     *
+     * @param value the String.
+     */
+    public void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        reserve(4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Ends the current record.
+     * If this completes a group of records, the group is written and forced
+     * to the storage device.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    public void end() throws IOException {
+        if (recordStart < 0)
+            throw new IllegalStateException("No record begun.");
+        int contents = recordStart + RECORD_HEADER_SIZE;
+        int length = buffer.position() - contents;
+        checksum.reset();
+        checksum.update(buffer.array(), contents, length);
+        buffer.putInt(recordStart, length);
+        buffer.putInt(recordStart + 4, (int) checksum.getValue());
+        recordStart = -1;
+        if (++pending >= groupSize)
+            commit();
+    }
+
+    /**
+     * Writes all ended records and forces them to the storage device.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    public void commit() throws IOException {
+        flush();
+        if (pending > 0) {
+            channel.force(false);
+            pending = 0;
+        }
+    }
+
+    /**
+     * Drops every record, written or not, leaving an empty journal.
+     * This is done once the records have been saved some other way, such
+     * as in a snapshot.
+     *
+     * @throws IOException if the file cannot be cut back.
+     */
+    public void clear() throws IOException {
+        recordStart = -1;
+        pending = 0;
+        buffer.clear();
+        channel.truncate(HEADER_SIZE);
+        channel.force(false);
+        end = HEADER_SIZE;
+    }
+
+    /**
+     * Commits all ended records and closes the journal.
+     * A record that was begun but not ended is dropped.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (recordStart >= 0) {
+            buffer.position(recordStart);
+            recordStart = -1;
+        }
+        try {
+            commit();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Makes room in the buffer for the given number of bytes.
+     * Whole records are written out first; the buffer only grows if the
+     * current record does not fit on its own.
+     *
+     * @param bytes the number of bytes needed.
+     */
+    private void reserve(int bytes) {
+        if (buffer.remaining() >= bytes)
+            return;
+        int start = (recordStart >= 0) ? recordStart : buffer.position();
+        try {
+            // Write out the records before the current one.
+            ByteBuffer done = buffer.duplicate();
+            done.position(0).limit(start);
+            end += writeFully(done, end);
+        }
+        catch (IOException ex) {
+            throw new TheaterException("Cannot write journal: "
+                + ex.getMessage());
+        }
+        int current = buffer.position() - start;
+        ByteBuffer bigger = (current + bytes > buffer.capacity()) ?
+            ByteBuffer.allocate(Math.max(buffer.capacity() * 2,
+                current + bytes)) : buffer;
+        System.arraycopy(buffer.array(), start, bigger.array(), 0, current);
+        buffer = bigger;
+        buffer.clear().position(current);
+        if (recordStart >= 0)
+            recordStart = 0;
+    }
+
+    /**
+     * Writes all ended records to the file, without forcing them to the
+     * storage device.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    private void flush() throws IOException {
+        int done = (recordStart >= 0) ? recordStart : buffer.position();
+        ByteBuffer records = buffer.duplicate();
+        records.position(0).limit(done);
+        end += writeFully(records, end);
+        int current = buffer.position() - done;
+        System.arraycopy(buffer.array(), done, buffer.array(), 0, current);
+        buffer.clear().position(current);
+        if (recordStart >= 0)
+            recordStart = 0;
+    }
+
+    /**
+     * Writes the given bytes to the file at the given position, cutting off
+     * anything that was after it.
+     *
+     * @param bytes the bytes to write.
+     * @param position the position in the file.
+     * @return the number of bytes written.
+     * @throws IOException if the bytes cannot be written.
+     */
+    private int writeFully(ByteBuffer bytes, long position) throws IOException {
+        int count = bytes.remaining();
+        if (count == 0)
+            return 0;
+        if (channel.size() > position)
+            channel.truncate(position);
+        while (bytes.hasRemaining())
+            position += channel.write(bytes, position);
+        return count;
+    }
+
+    /**
+     * Reads the records of a journal in the order they were written.
+     * Reading stops at the end of the file, or at the first record that was
+     * not written completely.
+     */
+    public class Reader {
+
+        /* The file contents being read. */
+        private ByteBuffer input = ByteBuffer.allocate(1 << 20);
+        /* The file position of the start of the input. */
+        private long inputStart = HEADER_SIZE;
+        /* The buffer position after the current record. */
+        private int recordEnd = 0;
+
+        Reader() {
+            input.limit(0);
+        }
+
+        /**
+         * Moves to the next record and returns its type.
+         *
+         * @return the type of the next record, or -1 if there are no more.
+         */
+        public int next() {
+            input.position(recordEnd);
+            try {
+                if (! fill(RECORD_HEADER_SIZE + 1))
+                    return finish();
+                int length = input.getInt(input.position());
+                int sum = input.getInt(input.position() + 4);
+                // A torn or corrupted length may claim more than the rest of
+                // the file, so it is checked before any buffer is sized by it.
+                long room = channel.size() - (inputStart + input.position())
+                    - RECORD_HEADER_SIZE;
+                if (length < 1 || length > room
+                        || ! fill(RECORD_HEADER_SIZE + length))
+                    return finish();
+                int contents = input.position() + RECORD_HEADER_SIZE;
+                checksum.reset();
+                checksum.update(input.array(), contents, length);
+                if ((int) checksum.getValue() != sum)
+                    return finish();
+                recordEnd = contents + length;
+                input.position(contents);
+                return input.get();
+            }
+            catch (IOException ex) {
+                throw new TheaterException("Cannot read journal: "
+                    + ex.getMessage());
+            }
+        }
+
+        /**
+         * Returns the next integer of the current record.
+         *
+         * @return the integer.
+         */
+        public int getInt() {
+            return input.getInt();
+        }
+
+        /**
+         * Returns the next long of the current record.
+         *
+         * @return the long.
+         */
+        public long getLong() {
+            return input.getLong();
+        }
+
+        /**
+         * Returns the next double of the current record.
+         *
+         * @return the double.
+         */
+        public double getDouble() {
+            return input.getDouble();
+        }
+
+        /**
+         * Returns the next boolean of the current record.
+         *
+         * @return the boolean.
+         */
+        public boolean getBoolean() {
+            return input.get() != 0;
+        }
+
+        /**
+         * Returns the next String of the current record.
+         *
+         * @return the String.
+         */
+        public String getString() {
+            int length = input.getInt();
+            String value = new String(input.array(), input.position(), length,
+                StandardCharsets.UTF_8);
+            input.position(input.position() + length);
+            return value;
+        }
+
+        /**
+         * Makes sure the given number of bytes from the current position are
+         * in the input, reading more of the file if needed.
+         *
+         * @param bytes the number of bytes needed.
+         * @return false if the file ends first.
+         * @throws IOException if the file cannot be read.
+         */
+        private boolean fill(int bytes) throws IOException {
+            while (input.remaining() < bytes) {
+                int position = input.position();
+                int available = input.remaining();
+                ByteBuffer next = (bytes > input.capacity()) ?
+                    ByteBuffer.allocate(Math.max(bytes, input.capacity() * 2))
+                    : input;
+                System.arraycopy(input.array(), position, next.array(), 0,
+                    available);
+                inputStart += position;
+                recordEnd = 0;
+                input = next;
+                input.clear().position(available);
+                int count = channel.read(input, inputStart + available);
+                input.flip();
+                if (count <= 0)
+                    return input.remaining() >= bytes;
+            }
+            return true;
+        }
+
+        /**
+         * Records where the whole records of the file end.
+         *
+         * @return -1, for no more records.
+         */
+        private int finish() {
+            end = inputStart + recordEnd;
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * A Theater that records every change to its state in a Journal, so that
+ * the state survives the program.
+ * <p>
+ * Each call that changes the theater is written to the journal before it is
+ * carried out. When a JournaledTheater is opened on an existing journal, the
+ * recorded calls are replayed in order to rebuild the theater as it was,
+ * and new calls are appended after them. A call that failed the first time
+ * fails again during replay, and is skipped just the same.
+ * <p>
+ * The following calls are recorded: setTicketPrice, setNextLine, addLine,
+ * addAuditorium, removeAuditorium, enqueueCustomer, seatNextCustomer,
+ * removeFromLine, removeFromTheater, and refundCustomer. For a seated
+ * customer, the line they were served from and the movie they chose are
+ * recorded, since the movie may have been changed while they were in line.
+ * An auditorium's own ticket price is recorded along with the auditorium.
+ * <p>
+ * Auditoriums must be empty when they are added, and their seats must only be
+ * changed through this theater. Lines always hold their customers in a
+ * Queue after replay.
+ * <p>
+ * Records are forced to disk in groups. Close the theater to force the last
+ * group.
+ * <p>
+ * A journal that grows too long to replay quickly can be cut short with
+ * checkpoint(), which saves the whole theater in a TheaterSnapshot and then
+ * empties the journal. A theater opened with a snapshot is restored from the
+ * snapshot first, and then from the calls journaled since. Each checkpoint
+ * starts a new generation, recorded both in the snapshot and at the start of
+ * the journal, so a journal left over from before the latest snapshot is
+ * recognized and dropped rather than replayed twice.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class JournaledTheater extends Theater implements Closeable {
+
+    /* The number of records per group commit unless given. */
+    public static final int DEFAULT_GROUP_SIZE = 64;
+
+    /* Record types. */
+    private static final byte PRICE = 1;
+    private static final byte LINE = 2;
+    private static final byte NEXT_LINE = 3;
+    private static final byte AUDITORIUM = 4;
+    private static final byte REMOVE_AUDITORIUM = 5;
+    private static final byte ENQUEUE = 6;
+    private static final byte SEAT = 7;
+    private static final byte REMOVE_FROM_LINE = 8;
+    private static final byte LEAVE = 9;
+    private static final byte REFUND = 10;
+    private static final byte GENERATION = 11;
+    private static final byte AUDITORIUM_PRICE = 12;
+
+    /* The journal all changes are recorded in. */
+    private Journal journal;
+    /* The generation of the last snapshot, or 0 if none. */
+    private long generation = 0;
+
+    /**
+     * Opens a theater journaled in the file with the given name.
+     * The theater is rebuilt from the journal if it holds any records, in
+     * which case the given ticket price is replaced by the recorded one.
+     * Otherwise a new journal is started.
+     *
+     * @param ticketPrice the price of one ticket for a new theater.
+     * @param fileName the name of the journal file.
+     * @throws IOException if the journal cannot be opened or read.
+     */
+    public JournaledTheater(double ticketPrice, String fileName)
+        throws IOException {
+        this(ticketPrice, fileName, DEFAULT_GROUP_SIZE);
+    }
+
+    /**
+     * Opens a theater journaled in the file with the given name, forcing
+     * records to disk in groups of the given size.
+     *
+     * @param ticketPrice the price of one ticket for a new theater.
+     * @param fileName the name of the journal file.
+     * @param groupSize the number of records per group commit.
+     * @throws IOException if the journal cannot be opened or read.
+     */
+    public JournaledTheater(double ticketPrice, String fileName, int groupSize)
+        throws IOException {
+        this(ticketPrice, fileName, null, groupSize);
+    }
+
+    /**
+     * Opens a theater journaled in the file with the given name, and saved
+     * in the snapshot file with the given name.
+     * The theater is restored from the snapshot if the file exists, and then
+     * from the records of the journal that came after it. If there is
+     * neither a snapshot nor any records, a new theater is started.
+     * Throws an IOException if the journal is newer than the snapshot.
+     *
+     * @param ticketPrice the price of one ticket for a new theater.
+     * @param fileName the name of the journal file.
+     * @param snapshotName the name of the snapshot file, or null if none.
+     * @param groupSize the number of records per group commit.
+     * @throws IOException if the journal or snapshot cannot be read.
+     */
+    public JournaledTheater(double ticketPrice, String fileName,
+        String snapshotName, int groupSize) throws IOException {
+        super(ticketPrice);
+        journal = new Journal(fileName, groupSize);
+        if (snapshotName != null && Files.exists(Paths.get(snapshotName))) {
+            try (TheaterSnapshot snapshot = new TheaterSnapshot(snapshotName)) {
+                restore(snapshot);
+                generation = snapshot.getGeneration();
+            }
+        }
+        if (journal.isEmpty()) {
+            if (generation == 0)
+                setTicketPrice(ticketPrice);
+            else
+                startGeneration();
+            return;
+        }
+        Journal.Reader records = journal.read();
+        int type = records.next();
+        long recorded = (type == GENERATION) ? records.getLong() : 0;
+        if (recorded > generation)
+            throw new IOException(fileName + " is newer than its snapshot.");
+        if (recorded < generation) {
+            // The snapshot was taken after these records; they are in it.
+            journal.clear();
+            startGeneration();
+            return;
+        }
+        if (type != GENERATION)
+            replay(type, records);
+        replay(records);
+    }
+
+    /**
+     * Returns the generation of the snapshot this theater was last saved in.
+     *
+     * @return the generation, or 0 if the theater was never saved.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Saves the whole theater in the snapshot file with the given name, and
+     * empties the journal. The snapshot replaces any earlier one in the
+     * file. Nothing else may use the theater while it is being saved.
+     *
+     * @param snapshotName the name of the snapshot file.
+     * @throws IOException if the snapshot or journal cannot be written.
+     */
+    public void checkpoint(String snapshotName) throws IOException {
+        journal.commit();
+        TheaterSnapshot.write(this, generation + 1, snapshotName);
+        generation++;
+        journal.clear();
+        startGeneration();
+    }
+
+    /**
+     * Forces all records to disk.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    public void commit() throws IOException {
+        journal.commit();
+    }
+
+    /**
+     * Forces all records to disk and closes the journal.
+     * The theater must not be changed afterwards.
+     *
+     * @throws IOException if the records cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    @Override
+    public void setTicketPrice(double price) {
+        begin(PRICE);
+        journal.putDouble(price);
+        end();
+        super.setTicketPrice(price);
+    }
+
+    @Override
+    public void setNextLine(int nextLine) {
+        begin(NEXT_LINE);
+        journal.putInt(nextLine);
+        end();
+        super.setNextLine(nextLine);
+    }
+
+    @Override
+    public void addLine(Line line) {
+        begin(LINE);
+        journal.putString(line.getName());
+        journal.putDouble(line.getWeight());
+        journal.putBoolean(line.isExpress());
+        end();
+        super.addLine(line);
+    }
+
+    @Override
+    public void addAuditorium(Auditorium auditorium) {
+        if (! auditorium.isEmpty())
+            throw new TheaterException(
+                "Only an empty auditorium can be added to a journaled theater.");
+        begin(AUDITORIUM);
+        journal.putString(auditorium.getKey());
+        journal.putInt(auditorium.getSeatingCapacity()
+            / auditorium.getSeatsPerRow());
+        journal.putInt(auditorium.getSeatsPerRow());
+        journal.putBoolean(auditorium.getSeatMap() instanceof BitmapSeatMap);
+        journal.putBoolean(auditorium.isSeatingTogether());
+        end();
+        if (auditorium.getTicketCents() >= 0) {
+            begin(AUDITORIUM_PRICE);
+            journal.putString(auditorium.getKey());
+            journal.putLong(auditorium.getTicketCents());
+            end();
+        }
+        super.addAuditorium(auditorium);
+    }
+
+    @Override
+    public void removeAuditorium(String movie) {
+        begin(REMOVE_AUDITORIUM);
+        journal.putString(movie);
+        end();
+        super.removeAuditorium(movie);
+    }
+
+    @Override
+    public Line enqueueCustomer(Customer customer, boolean hasChild) {
+        begin(ENQUEUE);
+        journal.putString(customer.getKey());
+        journal.putString(customer.getMovie());
+        journal.putInt(customer.getPartySize());
+        journal.putBoolean(hasChild);
+        end();
+        return super.enqueueCustomer(customer, hasChild);
+    }
+
+    @Override
+    public Customer seatNextCustomer() {
+        int lineIndex = getNextLine();
+        if (lineIndex >= 0 && ! getLine(lineIndex).isEmpty()) {
+            begin(SEAT);
+            journal.putInt(lineIndex);
+            journal.putString(getLine(lineIndex).peek().getMovie());
+            end();
+        }
+        return super.seatNextCustomer();
+    }
+
+    @Override
+    public void removeFromLine() {
+        begin(REMOVE_FROM_LINE);
+        journal.putInt(getNextLine());
+        end();
+        super.removeFromLine();
+    }
+
+    @Override
+    public void removeFromTheater(String name) {
+        begin(LEAVE);
+        journal.putString(name);
+        end();
+        super.removeFromTheater(name);
+    }
+
+    @Override
+    public TicketSales refundCustomer(String name) {
+        begin(REFUND);
+        journal.putString(name);
+        end();
+        return super.refundCustomer(name);
+    }
+
+    /**
+     * Carries out every call recorded by the given reader, without recording
+     * them again.
+     *
+     * @param records the reader of the recorded calls.
+     */
+    private void replay(Journal.Reader records) {
+        for (int type; (type = records.next()) >= 0;)
+            replay(type, records);
+    }
+
+    /**
+     * Carries out the recorded call the given reader is on, without
+     * recording it again.
+     *
+     * @param type the type of the record.
+     * @param record the reader positioned on the record's fields.
+     */
+    private void replay(int type, Journal.Reader record) {
+        try {
+            apply(type, record);
+        }
+        catch (TheaterException | ListException | QueueException
+                | IndexOutOfBoundsException ex) {
+            // The call failed the same way when it was recorded.
+        }
+    }
+
+    /**
+     * Restores the theater saved in the given snapshot, without recording
+     * anything. Every auditorium is added back with its ticket sales, but
+     * its seats are only read from the snapshot once the auditorium is
+     * used, so restoring takes no longer for the auditoriums nobody asks
+     * about. The customers present and waiting in line are added back.
+     *
+     * @param snapshot the snapshot.
+     */
+    private void restore(TheaterSnapshot snapshot) {
+        super.setTicketPrice(snapshot.getTicketPrice());
+        for (Line line : snapshot.getLines())
+            super.addLine(line);
+        for (int i = 0, numAuds = snapshot.getNumberOfMovies(); i < numAuds;
+                i++)
+            super.addAuditorium(snapshot.openAuditorium(i));
+        for (Customer customer : snapshot.getCustomers())
+            restoreCustomer(customer);
+        for (int i = 0, numLines = snapshot.getNumberOfLines(); i < numLines;
+                i++)
+            for (Customer customer : snapshot.getCustomers(i))
+                restoreToLine(customer, i);
+        if (snapshot.getNextLine() >= 0)
+            super.setNextLine(snapshot.getNextLine());
+    }
+
+    /**
+     * Records the current generation at the start of an empty journal.
+     *
+     * @throws IOException if the record cannot be written.
+     */
+    private void startGeneration() throws IOException {
+        begin(GENERATION);
+        journal.putLong(generation);
+        end();
+        journal.commit();
+    }
+
+    /**
+     * Carries out one recorded call.
+     *
+     * @param type the type of the record.
+     * @param record the reader positioned on the record's fields.
+     */
+    private void apply(int type, Journal.Reader record) {
+        switch (type) {
+            case PRICE:
+                super.setTicketPrice(record.getDouble());
+                break;
+            case LINE:
+                super.addLine(new Line(record.getString(), record.getDouble(),
+                    record.getBoolean()));
+                break;
+            case NEXT_LINE:
+                super.setNextLine(record.getInt());
+                break;
+            case AUDITORIUM:
+                super.addAuditorium(readAuditorium(record));
+                break;
+            case REMOVE_AUDITORIUM:
+                super.removeAuditorium(record.getString());
+                break;
+            case AUDITORIUM_PRICE:
+                getAuditorium(record.getString())
+                    .setTicketPrice(record.getLong() / 100.0);
+                break;
+            case ENQUEUE:
+                super.enqueueCustomer(new Customer(record.getString(),
+                    record.getString(), record.getInt()), record.getBoolean());
+                break;
+            case SEAT:
+                int lineIndex = record.getInt();
+                super.setNextLine(lineIndex);
+                getLine(lineIndex).peek().setMovie(record.getString());
+                super.seatNextCustomer();
+                break;
+            case REMOVE_FROM_LINE:
+                super.setNextLine(record.getInt());
+                super.removeFromLine();
+                break;
+            case LEAVE:
+                super.removeFromTheater(record.getString());
+                break;
+            case REFUND:
+                super.refundCustomer(record.getString());
+                break;
+            case GENERATION:
+                record.getLong();
+                break;
+            default:
+                throw new TheaterException("Unknown journal record " + type);
+        }
+    }
+
+    /**
+     * Builds an empty auditorium from a recorded one.
+     *
+     * @param record the reader positioned on the auditorium's fields.
+     * @return the auditorium.
+     */
+    private static Auditorium readAuditorium(Journal.Reader record) {
+        String movie = record.getString();
+        int rows = record.getInt();
+        int seatsPerRow = record.getInt();
+        SeatMapInterface seats = record.getBoolean() ?
+            new BitmapSeatMap(rows * seatsPerRow) :
+            new ArraySeatMap(rows * seatsPerRow);
+        Auditorium aud = new Auditorium(movie, rows, seatsPerRow, seats);
+        aud.setSeatingTogether(record.getBoolean());
+        return aud;
+    }
+
+    /**
+     * Starts a record of the given type.
+     *
+     * @param type the type of the record.
+     */
+    private void begin(byte type) {
+        try {
+            journal.begin(type);
+        }
+        catch (IOException ex) {
+            throw new TheaterException("Cannot write journal: "
+                + ex.getMessage());
+        }
+    }
+
+    /**
+     * Ends the current record.
+     */
+    private void end() {
+        try {
+            journal.end();
+        }
+        catch (IOException ex) {
+            throw new TheaterException("Cannot write journal: "
+                + ex.getMessage());
+        }
+    }
+}
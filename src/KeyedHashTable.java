@@ -0,0 +1,389 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A hash table of keyed items.
+ * Items are stored and retrieved using their search keys. No two items in
+ * the table may have equal search keys.
+ * <p>
+ * The table uses open addressing with linear probing. Items are kept in a
+ * single array whose length is a power of two, and the array is doubled
+ * whenever it becomes half full. Removed items do not leave markers behind;
+ * instead, the items following them are shifted back into place. Adding,
+ * finding, and removing an item take constant time on average.
+ * <p>
+ * The items are not kept in any particular order. When they are needed in
+ * order, a sorted copy of the table can be made. Iterating over the table
+ * visits the items in slot order, and a spliterator splits the slots in
+ * halves. Iterators and spliterators are fail-fast, and cannot remove items.
+ *
+ * @author agent
+ * @version 2026.10.17
+ *
+ * @param <T> the type of items held in this collection
+ * @param <KT> the type of each item's search key
+ */
+public class KeyedHashTable<T extends KeyedItem<KT>,
+KT extends Comparable<? super KT>> implements Iterable<T> {
+
+    /* The table slots. Empty slots are null. */
+    private T[] slots;
+    /* The total number of items in this table. */
+    private int numItems = 0;
+    /* The number of times this table has been structurally changed. */
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty table.
+     */
+    public KeyedHashTable() {
+        slots = newArray(16);
+    }
+
+    /**
+     * Returns true if this table contains no items.
+     *
+     * @return true if this table contains no items.
+     */
+    public boolean isEmpty() {
+        return numItems == 0;
+    }
+
+    /**
+     * Returns the total number of items in this table.
+     *
+     * @return the total number of items.
+     */
+    public int size() {
+        return numItems;
+    }
+
+    /**
+     * Returns true if an item with a search key matching the specified search
+     * key is in this table.
+     *
+     * @param searchKey the search key to search for
+     * @return true if the item searched for is in this table
+     */
+    public boolean contains(KT searchKey) {
+        return slots[slotOf(searchKey)] != null;
+    }
+
+    /**
+     * Returns the item with a search key equal to the specified one.
+     * If the item is not found, a ListException is thrown.
+     *
+     * @param searchKey the search key to search for
+     * @return the item matching the specified search key
+     */
+    public T get(KT searchKey) {
+        T item = slots[slotOf(searchKey)];
+        if (item != null)
+            return item;
+        else
+            throw new ListException("Item not found in table.");
+    }
+
+    /**
+     * Inserts the specified item into this table.
+     * If an item with the same search key is already in the table, a
+     * ListException is thrown.
+     *
+     * @param newItem item to be inserted
+     */
+    public void add(T newItem) {
+        int slot = slotOf(newItem.getKey());
+        if (slots[slot] == null) {
+            slots[slot] = newItem;
+            numItems++;
+            modCount++;
+            if (numItems * 2 > slots.length)
+                resize();
+        }
+        else
+            throw new ListException("Item already in table.");
+    }
+
+    /**
+     * Returns and removes the item with the search key matching the specified
+     * one. If the item is not found, a ListException is thrown.
+     *
+     * @param searchKey the search key to search for
+     * @return the removed item
+     */
+    public T remove(KT searchKey) {
+        int slot = slotOf(searchKey);
+        T item = slots[slot];
+        if (item == null)
+            throw new ListException("Item not found in table.");
+        // Shift back any following items that probed past the freed slot.
+        int mask = slots.length - 1;
+        int next = slot;
+        while (slots[next = (next + 1) & mask] != null) {
+            int home = hash(slots[next].getKey()) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                slots[slot] = slots[next];
+                slot = next;
+            }
+        }
+        slots[slot] = null;
+        numItems--;
+        modCount++;
+        return item;
+    }
+
+    /**
+     * Removes all items in this table.
+     * After this call, the table will be empty.
+     */
+    public void removeAll() {
+        Arrays.fill(slots, null);
+        numItems = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the items of this table, in no particular
+     * order.
+     *
+     * @return a fail-fast iterator over this table.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the items of this table, in no particular
+     * order. It splits the slots in halves, so its size is only an estimate.
+     *
+     * @return a fail-fast spliterator over this table.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Splitr(0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a sorted copy of this table.
+     * The returned list holds all of this table's items in ascending order of
+     * their search keys. Changes to the returned list do not affect this table.
+     *
+     * @return a list of this table's items in ascending order.
+     */
+    public AscendinglyOrderedList<T, KT> toOrderedList() {
+        AscendinglyOrderedList<T, KT> list =
+            new AscendinglyOrderedList<T, KT>(numItems);
+        toOrderedList(list);
+        return list;
+    }
+
+    /**
+     * Adds all of this table's items to the given ordered list.
+     * Changes to the list afterwards do not affect this table.
+     *
+     * @param list the list to which to add this table's items.
+     * @return the given list.
+     */
+    public OrderedListInterface<T, KT> toOrderedList(
+    OrderedListInterface<T, KT> list) {
+        for (T item : sortedItems())
+            list.add(item);
+        return list;
+    }
+
+    /**
+     * Returns a String representation of this table.
+     * The items appear in ascending order of their search keys.
+     *
+     * @return a String representation of this table
+     */
+    @Override
+    public String toString() {
+        StringBuilder tableString = new StringBuilder();
+        for (T item : sortedItems())
+            tableString.append(item.toString()).append('\n');
+        return tableString.toString();
+    }
+
+    /**
+     * Returns an array of all items in this table in ascending order of their
+     * search keys.
+     *
+     * @return the sorted array of items.
+     */
+    private T[] sortedItems() {
+        T[] sorted = newArray(numItems);
+        for (int slot = 0, i = 0; i < numItems; slot++)
+            if (slots[slot] != null)
+                sorted[i++] = slots[slot];
+        Arrays.sort(sorted, new Comparator<T>() {
+            public int compare(T first, T second) {
+                return first.getKey().compareTo(second.getKey());
+            }
+        });
+        return sorted;
+    }
+
+    /**
+     * Returns the slot holding the item with the given search key.
+     * If there is no such item, the empty slot where it would go is returned.
+     *
+     * @param searchKey the search key to search for.
+     * @return the slot of the item, or the empty slot where it would go.
+     */
+    private int slotOf(KT searchKey) {
+        int mask = slots.length - 1;
+        int slot = hash(searchKey) & mask;
+        while (slots[slot] != null && ! slots[slot].getKey().equals(searchKey))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * Returns the spread hash code of the given search key.
+     * The high bits of the key's hash code are mixed into the low ones, since
+     * only the low bits choose a slot.
+     *
+     * @param searchKey the search key to hash.
+     * @return the spread hash code.
+     */
+    private static int hash(Object searchKey) {
+        int h = searchKey.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns a new array of items of the given length.
+     * The cast is safe because T erases to KeyedItem, and the array never
+     * leaves this table.
+     *
+     * @param length the length of the array.
+     * @return the new array, with every element null.
+     */
+    @SuppressWarnings("unchecked")
+    private T[] newArray(int length) {
+        return (T[]) new KeyedItem<?>[length];
+    }
+
+    /**
+     * Doubles the number of slots in this table and reinserts every item.
+     */
+    private void resize() {
+        T[] oldSlots = slots;
+        slots = newArray(oldSlots.length * 2);
+        for (T item : oldSlots)
+            if (item != null)
+                slots[slotOf(item.getKey())] = item;
+    }
+
+    /**
+     * An iterator over the items of this table, in slot order.
+     */
+    private class Itr implements Iterator<T> {
+
+        /* The slot of the next item to return. */
+        private int slot = 0;
+        /* The number of items still to return. */
+        private int remaining = numItems;
+        /* The modification count this iterator expects. */
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            while (slots[slot] == null)
+                slot++;
+            remaining--;
+            return slots[slot++];
+        }
+    }
+
+    /**
+     * A spliterator over a range of the slots of this table.
+     * The range is bound to the table's slots when it is first used.
+     */
+    private class Splitr implements Spliterator<T> {
+
+        /* The next slot to look at. */
+        private int slot;
+        /* The slot after the last one, or -1 until first used. */
+        private int fence;
+        /* The estimated number of items in the range. */
+        private int estimate;
+        /* The modification count this spliterator expects. */
+        private int expectedModCount;
+
+        Splitr(int origin, int fence, int estimate, int expectedModCount) {
+            this.slot = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                estimate = numItems;
+                fence = slots.length;
+            }
+            return fence;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int middle = (slot + high) >>> 1;
+            if (slot >= middle)
+                return null;
+            estimate >>>= 1;
+            Spliterator<T> prefix = new Splitr(slot, middle, estimate,
+                expectedModCount);
+            slot = middle;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int high = getFence();
+            T[] table = slots;
+            while (slot < high) {
+                T item = table[slot++];
+                if (item != null) {
+                    action.accept(item);
+                    if (modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            int high = getFence();
+            T[] table = slots;
+            for (; slot < high; slot++)
+                if (table[slot] != null)
+                    action.accept(table[slot]);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+}
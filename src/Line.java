@@ -2,6 +2,10 @@
  * The Line class represents a line of customers.
  * A Line is a Queue of Customer objects that also has a name that can be used
  * to identify it.
+ * <p>
+ * Each Line has a weight that its length is multiplied by when customers
+ * choose the shortest line, so a line with a weight of 0.5 looks half as long
+ * as it is. Express lines are only open to customers with children.
  *
  * @author Eugene Koval
  * @version 2017.04.22
@@ -10,14 +14,34 @@ public class Line extends Queue<Customer> {
 
     /* The name of this Line. */
     private String name;
+    /* The number this Line's length is multiplied by when compared. */
+    private double weight;
+    /* Whether this Line is only open to customers with children. */
+    private boolean express;
 
     /**
-     * Constructs a Line with the given name.
+     * Constructs a regular Line with the given name and a weight of 1.
      *
      * @param name the name of this Line.
      */
     public Line(String name) {
+        this(name, 1.0, false);
+    }
+
+    /**
+     * Constructs a Line with the given name, weight, and kind.
+     * Throws a TheaterException if the weight is not positive.
+     *
+     * @param name the name of this Line.
+     * @param weight the positive weight of this Line's length.
+     * @param express if true, only customers with children may enter.
+     */
+    public Line(String name, double weight, boolean express) {
+        if (! (weight > 0))
+            throw new TheaterException("Line weight must be positive.");
         this.name = name;
+        this.weight = weight;
+        this.express = express;
     }
 
     /**
@@ -38,6 +62,33 @@ public class Line extends Queue<Customer> {
         name = newName;
     }
 
+    /**
+     * Returns the number this Line's length is multiplied by when compared.
+     *
+     * @return the weight of this Line.
+     */
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns true if this Line is only open to customers with children.
+     *
+     * @return true if this is an express Line.
+     */
+    public boolean isExpress() {
+        return express;
+    }
+
+    /**
+     * Returns the length of this Line multiplied by its weight.
+     *
+     * @return the weighted length of this Line.
+     */
+    public double getWeightedLength() {
+        return numItems * weight;
+    }
+
     /**
      * Returns the String representation of this Line.
      * If this Line is empty, a string indicating as such will be returned.
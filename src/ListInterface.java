@@ -1,17 +1,25 @@
+import java.util.function.Predicate;
+
 // ********************************************************
 //  Interface ListInterface for the ADT list.
 // *********************************************************
-public interface ListInterface<T> {
+public interface ListInterface<T> extends Iterable<T> {
 
     boolean isEmpty();
 
     int size();
     
     void add(int index, T item);
+
+    void addAll(int index, T[] newItems);
     
     T get(int index);
     
     T remove(int index);
+
+    void removeRange(int fromIndex, int toIndex);
+
+    int removeIf(Predicate<? super T> filter);
     
     void removeAll();
 }
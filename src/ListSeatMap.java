@@ -0,0 +1,178 @@
+/**
+ * A seat map that keeps its occupied seats in a list.
+ * <p>
+ * The list holds one Seat for every occupied seat, in ascending order of
+ * position. Seats are found with a binary search over the list, but every
+ * run of seats that is occupied or freed shifts the seats after it in an
+ * ArrayBasedList. Seats tend to be taken one after another at the same
+ * index, so a GapBufferList, which only shifts the seats between two edits,
+ * may be given instead.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class ListSeatMap implements SeatMapInterface {
+
+    /* The total number of seats. */
+    private int capacity;
+    /* The list of all occupied seats in ascending order of position. */
+    private ListInterface<Seat> seats;
+
+    /**
+     * Constructs a seat map with the given number of seats, all of them free.
+     *
+     * @param capacity the total number of seats.
+     */
+    public ListSeatMap(int capacity) {
+        this(capacity, new ArrayBasedList<Seat>());
+    }
+
+    /**
+     * Constructs a seat map with the given number of seats, all of them free,
+     * that keeps its occupied seats in the given list.
+     * The list must be empty.
+     *
+     * @param capacity the total number of seats.
+     * @param seats the empty list to keep the occupied seats in.
+     */
+    public ListSeatMap(int capacity, ListInterface<Seat> seats) {
+        if (! seats.isEmpty())
+            throw new TheaterException("Seat list must be empty.");
+        this.capacity = capacity;
+        this.seats = seats;
+    }
+
+    /**
+     * Returns the total number of seats, free or otherwise.
+     *
+     * @return the total number of seats.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of occupied seats.
+     *
+     * @return the number of occupied seats.
+     */
+    public int size() {
+        return seats.size();
+    }
+
+    /**
+     * Returns true if no seats are occupied.
+     *
+     * @return true if no seats are occupied.
+     */
+    public boolean isEmpty() {
+        return seats.isEmpty();
+    }
+
+    /**
+     * Returns the position of the first free seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the free seat, or capacity + 1 if there is none.
+     */
+    public int nextFree(int position) {
+        int numSeats = seats.size();
+        for (int index = indexOf(position); index < numSeats
+                && seats.get(index).getPosition() == position; index++)
+            position++;
+        return (position <= capacity) ? position : capacity + 1;
+    }
+
+    /**
+     * Returns the position of the first occupied seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the occupied seat, or capacity + 1 if there is none.
+     */
+    public int nextOccupied(int position) {
+        int index = indexOf(position);
+        return (index < seats.size()) ?
+            seats.get(index).getPosition() : capacity + 1;
+    }
+
+    /**
+     * Returns the name of the occupant of the seat at the given position.
+     *
+     * @param position the position of the seat.
+     * @return the occupant's name, or null if the seat is free.
+     */
+    public String getOccupant(int position) {
+        int index = indexOf(position);
+        if (index < seats.size() && seats.get(index).getPosition() == position)
+            return seats.get(index).getOccupant();
+        else
+            return null;
+    }
+
+    /**
+     * Occupies a run of consecutive free seats with the given occupant.
+     *
+     * @param first the position of the first seat to occupy.
+     * @param count the number of seats to occupy.
+     * @param occupant the name of the seats' occupant.
+     */
+    public void occupy(int first, int count, String occupant) {
+        Seat[] run = new Seat[count];
+        for (int i = 0; i < count; i++)
+            run[i] = new Seat(first + i, occupant);
+        seats.addAll(indexOf(first), run);
+    }
+
+    /**
+     * Frees the seat at the given position.
+     *
+     * @param position the position of the seat to free.
+     * @return the name of the seat's former occupant, or null if it was free.
+     */
+    public String vacate(int position) {
+        int index = indexOf(position);
+        if (index < seats.size() && seats.get(index).getPosition() == position)
+            return seats.remove(index).getOccupant();
+        else
+            return null;
+    }
+
+    /**
+     * Frees a run of consecutive seats. Seats of the run that are already
+     * free stay free.
+     *
+     * @param first the position of the first seat to free.
+     * @param count the number of seats to free.
+     */
+    public void vacate(int first, int count) {
+        seats.removeRange(indexOf(first), indexOf(first + count));
+    }
+
+    /**
+     * Frees all seats.
+     */
+    public void clear() {
+        seats.removeAll();
+    }
+
+    /**
+     * Returns the index of the first seat in the list whose position is
+     * greater or equal to the given one.
+     * If there is no such seat, the size of the list is returned.
+     *
+     * @param position the position to search for.
+     * @return the index of the first seat at or after the given position.
+     */
+    private int indexOf(int position) {
+        int low = 0;
+        int high = seats.size();
+        while (low < high) {
+            int mid = (low + high) / 2;
+            if (seats.get(mid).getPosition() < position)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
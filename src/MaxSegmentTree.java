@@ -0,0 +1,98 @@
+/**
+ * A segment tree over a fixed number of non-negative integer values.
+ * <p>
+ * Each internal node of the tree holds the largest value found beneath it.
+ * This allows the first value that is at least a given minimum to be found
+ * in logarithmic time. Changing a single value also takes logarithmic time.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class MaxSegmentTree {
+
+    /* The tree nodes. Node 1 is the root, and the values are the leaves. */
+    private int[] tree;
+    /* The index of the first leaf. */
+    private int leaves;
+    /* The number of values held by this tree. */
+    private int numValues;
+
+    /**
+     * Constructs a tree holding the given number of values, all of them zero.
+     *
+     * @param numValues the number of values.
+     */
+    public MaxSegmentTree(int numValues) {
+        this.numValues = numValues;
+        leaves = 1;
+        while (leaves < numValues)
+            leaves *= 2;
+        tree = new int[leaves * 2];
+    }
+
+    /**
+     * Returns the number of values held by this tree.
+     *
+     * @return the number of values.
+     */
+    public int size() {
+        return numValues;
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index the index of the value.
+     * @return the value at the given index.
+     */
+    public int get(int index) {
+        if (index >= 0 && index < numValues)
+            return tree[leaves + index];
+        else
+            throw new ListIndexOutOfBoundsException(
+                "Tree index " + index + " out of bounds on get.");
+    }
+
+    /**
+     * Replaces the value at the given index.
+     *
+     * @param index the index of the value.
+     * @param value the new non-negative value.
+     */
+    public void set(int index, int value) {
+        if (index >= 0 && index < numValues) {
+            int node = leaves + index;
+            tree[node] = value;
+            for (node /= 2; node > 0; node /= 2)
+                tree[node] = Math.max(tree[node * 2], tree[node * 2 + 1]);
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+                "Tree index " + index + " out of bounds on set.");
+    }
+
+    /**
+     * Returns the largest value held by this tree.
+     *
+     * @return the largest value, or zero if this tree holds no values.
+     */
+    public int getMax() {
+        return tree[1];
+    }
+
+    /**
+     * Returns the index of the first value that is greater or equal to the
+     * given minimum.
+     *
+     * @param minimum the smallest acceptable value. Must be at least one.
+     * @return the index of the value found, or -1 if there is none.
+     */
+    public int findFirst(int minimum) {
+        if (tree[1] < minimum)
+            return -1;
+        int node = 1;
+        while (node < leaves)
+            node = (tree[node * 2] >= minimum) ? node * 2 : node * 2 + 1;
+        return node - leaves;
+    }
+}
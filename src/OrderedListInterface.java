@@ -0,0 +1,47 @@
+/**
+ * An OrderedListInterface is a list of keyed items kept in ascending order of
+ * their search keys.
+ * <p>
+ * Items can be retrieved and removed using their search keys or by index.
+ * Adding items can only be done based on their search keys, so the items are
+ * always in sorted order. Iterating over the list visits the items in that
+ * order.
+ *
+ * @author agent
+ * @version 2026.10.17
+ *
+ * @param <T> the type of items held in this collection
+ * @param <KT> the type of each item's search key
+ */
+public interface OrderedListInterface<T extends KeyedItem<KT>,
+KT extends Comparable<? super KT>> extends Iterable<T> {
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * Returns the index of the first item with a search key that matches the
+     * specified search key. If no item matching the search key is found,
+     * the index where the item would go is returned in an encoded manner.
+     * To decode the index of failed search, multiply it by -1 and add 1.
+     *
+     * @param searchKey the search key to search for
+     * @return index of the found item or encoded index of where the item would go
+     */
+    int indexOf(KT searchKey);
+
+    boolean contains(KT searchKey);
+
+    T get(int index);
+
+    T get(KT searchKey);
+
+    void add(T newItem);
+
+    T remove(int index);
+
+    T remove(KT searchKey);
+
+    void removeAll();
+}
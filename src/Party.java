@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+/**
+ * The Party class represents the seats held by a viewing party in an
+ * Auditorium.
+ * <p>
+ * The party is identified by the name its seats are occupied under. Since
+ * Party is a subclass of KeyedItem, a call to getKey() will return the name
+ * of this Party. The positions of the party's seats are kept in ascending
+ * order. A Party also remembers what it paid for its tickets, so that the
+ * purchase can be refunded.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class Party extends KeyedItem<String> {
+
+    /* The positions of this Party's seats in ascending order. */
+    private int[] positions;
+    /* The number of seats held by this Party. */
+    private int numSeats = 0;
+    /* The tickets bought by this Party and the money paid for them. */
+    private TicketSales paid = TicketSales.NONE;
+
+    /**
+     * Constructs a Party with the given name that holds no seats.
+     *
+     * @param name the name of this Party.
+     */
+    public Party(String name) {
+        super(name);
+        positions = new int[4];
+    }
+
+    /**
+     * Returns the number of seats held by this Party.
+     *
+     * @return the number of seats.
+     */
+    public int size() {
+        return numSeats;
+    }
+
+    /**
+     * Returns true if this Party holds no seats.
+     *
+     * @return true if this Party holds no seats.
+     */
+    public boolean isEmpty() {
+        return numSeats == 0;
+    }
+
+    /**
+     * Returns the position of the seat at the given index.
+     * Index 0 is the seat closest to the front of the Auditorium.
+     *
+     * @param index the index of the seat.
+     * @return the position of the seat.
+     */
+    public int getPosition(int index) {
+        if (index >= 0 && index < numSeats)
+            return positions[index];
+        else
+            throw new ListIndexOutOfBoundsException(
+                "Party index " + index + " out of bounds on get.");
+    }
+
+    /**
+     * Returns the tickets bought by this Party and the money paid for them.
+     *
+     * @return the tickets bought by this Party.
+     */
+    public TicketSales getPaid() {
+        return paid;
+    }
+
+    /**
+     * Records the purchase of more tickets by this Party.
+     *
+     * @param tickets the number of tickets bought.
+     * @param cents the money paid for the tickets, in cents.
+     */
+    public void addPaid(int tickets, long cents) {
+        paid = paid.add(tickets, cents);
+    }
+
+    /**
+     * Adds a run of consecutive seats to this Party.
+     *
+     * @param first the position of the first seat of the run.
+     * @param count the number of seats in the run.
+     */
+    public void addSeats(int first, int count) {
+        if (numSeats + count > positions.length)
+            positions = Arrays.copyOf(
+                positions, Math.max(positions.length * 2, numSeats + count));
+        // Seats are almost always added behind the ones already held.
+        int index = numSeats;
+        while (index > 0 && positions[index - 1] > first)
+            index--;
+        System.arraycopy(positions, index, positions, index + count,
+            numSeats - index);
+        for (int i = 0; i < count; i++)
+            positions[index + i] = first + i;
+        numSeats += count;
+    }
+
+    /**
+     * Removes the given number of seats closest to the front of the
+     * Auditorium from this Party.
+     *
+     * @param count the number of seats to remove.
+     */
+    public void removeFirstSeats(int count) {
+        System.arraycopy(positions, count, positions, 0, numSeats - count);
+        numSeats -= count;
+    }
+}
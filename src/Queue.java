@@ -1,8 +1,18 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 /**
  * A resizable-array implementation of the QueueInterface.
  * The elements in a queue are processed in a FIFO (first-in-first-out) manner.
  * New elements are added to the back of a queue. Elements can only be removed
  * from the front of a queue. 
+ * <p>
+ * A queue can be iterated from front to back without removing anything.
+ * Iterators and spliterators are fail-fast: they throw a
+ * ConcurrentModificationException if the queue is changed under them.
  * 
  * @author Brandon Campbell
  * @author Eugene Koval
@@ -10,7 +20,7 @@
  *
  * @param <T> the type of elements held in this collection
  */
-public class Queue<T> implements QueueInterface<T> {
+public class Queue<T> implements QueueInterface<T>, Iterable<T> {
 
     /** The array of items in this queue. */
     protected T[] items;
@@ -20,6 +30,8 @@ public class Queue<T> implements QueueInterface<T> {
     protected int back = 0;
     /** The total number of items in this queue. */
     protected int numItems = 0;
+    /** The number of times this queue has been changed. */
+    protected int modCount = 0;
 
     /**
      * Constructs an empty queue.
@@ -58,6 +70,7 @@ public class Queue<T> implements QueueInterface<T> {
         items[back] = newItem;
         back = (back + 1) % items.length;
         numItems++;
+        modCount++;
     }
 
     /**
@@ -71,6 +84,7 @@ public class Queue<T> implements QueueInterface<T> {
             items[front] = null;
             front = (front + 1) % items.length;
             numItems--;
+            modCount++;
             return item;
         }
         else
@@ -86,6 +100,7 @@ public class Queue<T> implements QueueInterface<T> {
         front = 0;
         back = 0;
         numItems = 0;
+        modCount++;
     }
 
     /**
@@ -101,6 +116,27 @@ public class Queue<T> implements QueueInterface<T> {
             throw new QueueException("Queue is empty. Nothing to peek.");
     }
 
+    /**
+     * Returns an iterator over the items of this queue, from front to back.
+     * The iterator cannot remove items.
+     *
+     * @return a fail-fast iterator over this queue.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the items of this queue, from front to
+     * back. It knows its exact size and splits in halves.
+     *
+     * @return a fail-fast spliterator over this queue.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Splitr(0, -1, 0);
+    }
+
     /**
      * Returns the String representation of this queue.
      * The returned String will contain the String representation of all of 
@@ -129,4 +165,102 @@ public class Queue<T> implements QueueInterface<T> {
         front = 0;
         back = index;
     }
+
+    /**
+     * Returns the item at the given distance from the front of this queue.
+     * The index must be in range.
+     *
+     * @param index the distance from the front.
+     * @return the item.
+     */
+    private T itemAt(int index) {
+        int slot = front + index;
+        return items[(slot < items.length) ? slot : slot - items.length];
+    }
+
+    /**
+     * An iterator over the items of this queue.
+     */
+    private class Itr implements Iterator<T> {
+
+        /* The distance from the front of the next item to return. */
+        private int cursor = 0;
+        /* The modification count this iterator expects. */
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor < numItems;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (cursor >= numItems)
+                throw new NoSuchElementException();
+            return itemAt(cursor++);
+        }
+    }
+
+    /**
+     * A spliterator over a range of the items of this queue.
+     * The range is bound to the queue's size when it is first used.
+     */
+    private class Splitr implements Spliterator<T> {
+
+        /* The distance from the front of the next item to return. */
+        private int index;
+        /* The distance after the last item, or -1 until first used. */
+        private int fence;
+        /* The modification count this spliterator expects. */
+        private int expectedModCount;
+
+        Splitr(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = numItems;
+            }
+            return fence;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int middle = (index + high) >>> 1;
+            if (index >= middle)
+                return null;
+            Spliterator<T> prefix = new Splitr(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= getFence())
+                return false;
+            action.accept(itemAt(index++));
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (int high = getFence(); index < high; index++)
+                action.accept(itemAt(index));
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                | Spliterator.SUBSIZED;
+        }
+    }
 }
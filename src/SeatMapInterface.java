@@ -0,0 +1,92 @@
+/**
+ * A SeatMapInterface keeps track of which seats of an Auditorium are occupied
+ * and by whom.
+ * <p>
+ * Seats are identified by their position in the Auditorium. Positions start
+ * at 1 and end at the seat map's capacity. Any position that is not occupied
+ * is considered free. Methods that search for a seat return one more than the
+ * capacity when no seat matching the search is found.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public interface SeatMapInterface {
+
+    /**
+     * Returns the total number of seats, free or otherwise.
+     *
+     * @return the total number of seats.
+     */
+    int getCapacity();
+
+    /**
+     * Returns the number of occupied seats.
+     *
+     * @return the number of occupied seats.
+     */
+    int size();
+
+    /**
+     * Returns true if no seats are occupied.
+     *
+     * @return true if no seats are occupied.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the position of the first free seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the free seat, or capacity + 1 if there is none.
+     */
+    int nextFree(int position);
+
+    /**
+     * Returns the position of the first occupied seat at or after the given one.
+     *
+     * @param position the position at which to start searching.
+     * @return the position of the occupied seat, or capacity + 1 if there is none.
+     */
+    int nextOccupied(int position);
+
+    /**
+     * Returns the name of the occupant of the seat at the given position.
+     *
+     * @param position the position of the seat.
+     * @return the occupant's name, or null if the seat is free.
+     */
+    String getOccupant(int position);
+
+    /**
+     * Occupies a run of consecutive seats with the given occupant.
+     * All seats from the first position up to, but not including, the first
+     * position plus the count must be free.
+     *
+     * @param first the position of the first seat to occupy.
+     * @param count the number of seats to occupy.
+     * @param occupant the name of the seats' occupant.
+     */
+    void occupy(int first, int count, String occupant);
+
+    /**
+     * Frees the seat at the given position.
+     *
+     * @param position the position of the seat to free.
+     * @return the name of the seat's former occupant, or null if it was free.
+     */
+    String vacate(int position);
+
+    /**
+     * Frees a run of consecutive seats. Seats of the run that are already
+     * free stay free.
+     *
+     * @param first the position of the first seat to free.
+     * @param count the number of seats to free.
+     */
+    void vacate(int first, int count);
+
+    /**
+     * Frees all seats.
+     */
+    void clear();
+}
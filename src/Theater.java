@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Theater where all customers enter in order to purchase tickets.
  * The theater contains a list of all customers present, auditoriums, and three
@@ -11,15 +14,29 @@
 public class Theater
 {
     /* A list of auditoriums in the theater. */
-    private AscendinglyOrderedList<Auditorium, String> auditoriums;
-    /* A list of customers that are present in the entire movie theater. */
-    private AscendinglyOrderedList<Customer, String> customers;
+    private OrderedListInterface<Auditorium, String> auditoriums;
+    /* The same auditoriums, searchable by movie in constant time. */
+    private KeyedHashTable<Auditorium, String> movies;
+    /* A table of customers that are present in the entire movie theater. */
+    private KeyedHashTable<Customer, String> customers;
     /* A list of each available line in the movie theater. */
     private ListInterface<Line> lines;
+    /* The indexes of the regular lines, by weighted length. */
+    private IndexedMinHeap regularLines;
+    /* The indexes of the express lines, by weighted length. */
+    private IndexedMinHeap expressLines;
     /* The price for a single ticket into a movie. */
     private double ticketPrice;
+    /* The price for a single ticket, in cents. */
+    private long ticketCents;
+    /* The running totals of the ticket sales of all auditoriums. */
+    private AtomicReference<TicketSales> sales;
+    /* The auditoriums indexed by their number of free seats. */
+    private FreeSeatIndex freeSeats;
     /* The line that is next in round robin order. */
     private int nextLine;
+    /* Whether ordered collections are kept in balanced trees. */
+    private boolean useTrees;
 
     /**
      * Constructor for a Theater.
@@ -36,10 +53,32 @@ public class Theater
      * @param ticketPrice the price of one ticket.
      */
     public Theater(double ticketPrice) {
+        this(ticketPrice, false);
+    }
+
+    /**
+     * Constructor for a Theater.
+     * Creates a theater the same way as the single-argument constructor.
+     * If useTrees is true, the auditoriums, and the ordered lists of customers
+     * returned by getCustomers(), are kept in balanced trees instead of
+     * sorted arrays. This makes adding and removing auditoriums take
+     * logarithmic time, which matters for theaters with many auditoriums.
+     *
+     * @param ticketPrice the price of one ticket.
+     * @param useTrees if true, ordered collections are kept in balanced trees.
+     */
+    public Theater(double ticketPrice, boolean useTrees) {
         this.ticketPrice = ticketPrice;
-        auditoriums = new AscendinglyOrderedList<Auditorium, String>();
-        customers = new AscendinglyOrderedList<Customer, String>();
+        this.ticketCents = TicketSales.toCents(ticketPrice);
+        this.useTrees = useTrees;
+        sales = new AtomicReference<TicketSales>(TicketSales.NONE);
+        auditoriums = newOrderedList();
+        movies = new KeyedHashTable<Auditorium, String>();
+        freeSeats = new FreeSeatIndex(auditoriums);
+        customers = new KeyedHashTable<Customer, String>();
         lines = new ArrayBasedList<Line>();
+        regularLines = new IndexedMinHeap();
+        expressLines = new IndexedMinHeap();
         nextLine = -1;
     }
 
@@ -55,12 +94,38 @@ public class Theater
 
     /**
      * Sets the price of a single ticket for a movie.
+     * Tickets already sold keep the price they were sold at.
      *
      * @param price the price of a movie ticket.
      */
     public void setTicketPrice(double price)
     {
         this.ticketPrice = price;
+        this.ticketCents = TicketSales.toCents(price);
+    }
+
+    /**
+     * Returns the price of one movie ticket in cents.
+     *
+     * @return the price of one ticket, in cents.
+     */
+    protected long getTicketCents()
+    {
+        return ticketCents;
+    }
+
+    /**
+     * Returns the price in cents of one ticket for the given auditorium's
+     * movie: the auditorium's own price if it has one, or else the price of
+     * this theater.
+     *
+     * @param aud the auditorium.
+     * @return the price of one ticket, in cents.
+     */
+    protected long getTicketCents(Auditorium aud)
+    {
+        long own = aud.getTicketCents();
+        return (own >= 0) ? own : ticketCents;
     }
 
     /**
@@ -108,18 +173,47 @@ public class Theater
         return auditoriums.size();
     }
 
+    /**
+     * Returns true if an auditorium in this theater is playing the given movie.
+     *
+     * @param movie the title of the movie.
+     * @return true if the movie is playing in this theater.
+     */
+    public boolean containsMovie(String movie)
+    {
+        return movies.contains(movie);
+    }
+
+    /**
+     * Returns the titles of all movies currently playing in this theater.
+     * The titles are in ascending alphabetical order.
+     *
+     * @return the titles of all movies.
+     */
+    public String[] getMovies()
+    {
+        String[] titles = new String[auditoriums.size()];
+        int i = 0;
+        for (Auditorium aud : auditoriums)
+            titles[i++] = aud.getKey();
+        return titles;
+    }
+
     /**
      * Enqueues a customer in the shortest line available to them.
      * This method is the only way to add customers to this theater. From the
      * time they enter a line to the time they leave, a customer with a name
      * matching the name of the given customer may not enter the theater.
      * <p>
-     * The given customer may enter the express line only if hasChild is true.
-     * A customer bound for the express line will be put in a regular line
-     * instead if a regular line is atleast twice as short as the express line.
-     * Out of the regular lines, the customer will be put in the shortest one.
+     * The given customer may enter an express line only if hasChild is true.
+     * Out of the lines open to them, the customer will be put in the one with
+     * the shortest length multiplied by the line's weight. Ties go to the line
+     * that was added first. An express line with a weight of 0.5 is chosen
+     * unless a regular line is atleast twice as short.
      * <p>
-     * Returns the line into which the customer was placed.
+     * Returns the line into which the customer was placed. If a customer with
+     * the same name is already in the theater, or no line is open to them, a
+     * TheaterException is thrown.
      *
      * @param customer the customer to be enqueued.
      * @param hasChild if true, the customer may be put in the express line.
@@ -127,9 +221,17 @@ public class Theater
      */
     public Line enqueueCustomer(Customer customer, boolean hasChild)
     {
-        Line shortest = getShortestLine(hasChild);
+        int shortIndex = getShortestLine(hasChild);
+        Line shortest = lines.get(shortIndex);
+        try {
+            customers.add(customer);
+        }
+        catch (ListException ex) {
+            throw new TheaterException(
+                "Customer " + customer.getKey() + " is already in the theater!");
+        }
         shortest.enqueue(customer);
-        customers.add(customer);
+        lineChanged(shortIndex);
         return shortest;
     }
 
@@ -145,35 +247,91 @@ public class Theater
     }
 
     /**
-     * Returns the shortest line that a customer is allowed to be in.
-     * If checkExpress is true, this method will check if there are any regular
-     * lines that are twice as short as the express line. If checkExpress is
-     * false, only the lengths of the regular lines will be compared.
+     * Returns all customers currently in the theater's lines or auditoriums.
+     * The customers are listed in ascending order of their names. The returned
+     * list is a copy; changing it does not affect the theater.
+     *
+     * @return the list of customers in ascending order of their names.
+     */
+    public OrderedListInterface<Customer, String> getCustomers() {
+        return customers.toOrderedList(
+            this.<Customer>newOrderedList(customers.size()));
+    }
+
+    /**
+     * Returns a new, empty ordered list of the kind chosen at construction.
+     *
+     * @param <T> the type of items held in the list.
+     * @return a balanced tree if this theater uses trees; otherwise a sorted
+     *         array.
+     */
+    private <T extends KeyedItem<String>> OrderedListInterface<T, String> 
+    newOrderedList() {
+        return newOrderedList(ArrayBasedList.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns a new, empty ordered list of the kind chosen at construction,
+     * with room for the given number of items if it is a sorted array.
+     *
+     * @param <T> the type of items held in the list.
+     * @param initialCapacity the number of items a sorted array has room for.
+     * @return a balanced tree if this theater uses trees; otherwise a sorted
+     *         array.
+     */
+    private <T extends KeyedItem<String>> OrderedListInterface<T, String> 
+    newOrderedList(int initialCapacity) {
+        if (useTrees)
+            return new TreeOrderedList<T, String>();
+        else
+            return new AscendinglyOrderedList<T, String>(initialCapacity);
+    }
+
+    /**
+     * Returns the index of the shortest line that a customer is allowed to
+     * be in.
+     * If checkExpress is true, the express lines are compared along with the
+     * regular lines. If checkExpress is false, only the weighted lengths of
+     * the regular lines will be compared.
      *
-     * @param checkExpress whether to compare the express line length or not.
-     * @return the shortest line that a customer is allowed to be in.
+     * @param checkExpress whether to compare the express lines or not.
+     * @return the index of the shortest line that a customer is allowed to be
+     *         in.
      */
-    private Line getShortestLine(boolean checkExpress)
+    private int getShortestLine(boolean checkExpress)
     {
-        int shortIndex;
-        double shortSize;
-        if (checkExpress) {
-            shortIndex = 0;
-            shortSize = lines.get(0).size() / 2.0;
-        }
-        else {
-            shortIndex = 1;
-            shortSize = lines.get(1).size();
-        }
-        int numLines = lines.size();
-        for (int i = shortIndex; i < numLines; i++) {
-            int currSize = lines.get(i).size();
-            if (currSize < shortSize) {
-                shortIndex = i;
-                shortSize = currSize;
-            }
+        if (checkExpress && ! expressLines.isEmpty()) {
+            int express = expressLines.peek();
+            if (regularLines.isEmpty())
+                return express;
+            int regular = regularLines.peek();
+            double expressSize = expressLines.getKey(express);
+            double regularSize = regularLines.getKey(regular);
+            if (expressSize < regularSize
+                    || (expressSize == regularSize && express < regular))
+                return express;
+            else
+                return regular;
         }
-        return lines.get(shortIndex);
+        else if (! regularLines.isEmpty())
+            return regularLines.peek();
+        else
+            throw new TheaterException("There is no line for this customer!");
+    }
+
+    /**
+     * Updates the weighted length of the line at the given index after
+     * customers have entered or left it.
+     *
+     * @param lineIndex the index of the line.
+     */
+    private void lineChanged(int lineIndex)
+    {
+        Line line = lines.get(lineIndex);
+        if (line.isExpress())
+            expressLines.setKey(lineIndex, line.getWeightedLength());
+        else
+            regularLines.setKey(lineIndex, line.getWeightedLength());
     }
 
     /**
@@ -186,7 +344,7 @@ public class Theater
      */
     public boolean hasEnoughSeats(String movie, int partySize)
     {
-        int remaining = auditoriums.get(movie).getRemainingSeats();
+        int remaining = movies.get(movie).getRemainingSeats();
         return remaining >= partySize;
     }
 
@@ -214,20 +372,33 @@ public class Theater
      * The movies are in ascending alphabetical order.
      * Returns the name of the movie that can be seen by the entire viewing
      * party. If all movies are sold out, an empty String is returned.
+     * The auditoriums are indexed by their number of empty seats, so this
+     * takes logarithmic time.
      *
      * @param partySize the party size to find seating for.
      * @return the name of the movie, or an empty String if all movies sold out.
      */
     public String findFirstAvailableMovie(int partySize)
     {
-        String availableMovie = "";
-        int numMovies = auditoriums.size();
-        for (int i = 0; i < numMovies && availableMovie.isEmpty(); i++) {
-            Auditorium current = auditoriums.get(i);
-            if (current.getRemainingSeats() >= partySize)
-                availableMovie = current.getKey();
-        }
-        return availableMovie;
+        Auditorium available = freeSeats.findFirstFit(partySize);
+        return (available != null) ? available.getKey() : "";
+    }
+
+    /**
+     * Finds the auditorium with the fewest empty seats that can still
+     * accommodate the given party size.
+     * Filling the fullest auditoriums first leaves the large runs of empty
+     * seats for large parties. If several auditoriums have the same number of
+     * empty seats, the movie that comes first alphabetically is chosen. If
+     * all movies are sold out, an empty String is returned.
+     *
+     * @param partySize the party size to find seating for.
+     * @return the name of the movie, or an empty String if all movies sold out.
+     */
+    public String findBestAvailableMovie(int partySize)
+    {
+        Auditorium available = freeSeats.findBestFit(partySize);
+        return (available != null) ? available.getKey() : "";
     }
 
     /**
@@ -244,7 +415,7 @@ public class Theater
         Customer customer = null;
         int numLines = lines.size();
         for (int i = 0; i < numLines && customer == null; i++) {
-            Queue<Customer> current = lines.get(nextLine);
+            Line current = lines.get(nextLine);
             if (! current.isEmpty())
                 customer = current.peek();
             else
@@ -264,8 +435,8 @@ public class Theater
     public Customer seatNextCustomer()
     {
         Customer next = dequeueNextCustomer();
-        auditoriums.get(next.getMovie())
-        .addParty(next.getKey(), next.getPartySize());
+        Auditorium aud = movies.get(next.getMovie());
+        aud.addParty(next.getKey(), next.getPartySize(), getTicketCents(aud));
         return next;
     }
 
@@ -275,12 +446,15 @@ public class Theater
      *
      * @return the next customer to be served.
      */
-    private Customer dequeueNextCustomer()
+    protected Customer dequeueNextCustomer()
     {
-        Line current = lines.get(nextLine);
+        int lineIndex = nextLine;
+        Line current = lines.get(lineIndex);
         if (! current.isEmpty()) {
             advanceLine();
-            return current.dequeue();
+            Customer next = current.dequeue();
+            lineChanged(lineIndex);
+            return next;
         }
         else
             throw new TheaterException(
@@ -320,7 +494,7 @@ public class Theater
     {
         try {
             Customer customer = customers.remove(name);
-            Auditorium aud = auditoriums.get(customer.getMovie());
+            Auditorium aud = movies.get(customer.getMovie());
             aud.removeParty(name, customer.getPartySize());
         }
         catch (ListException ex) {
@@ -329,6 +503,27 @@ public class Theater
         }
     }
 
+    /**
+     * Removes a customer and all members of their party from the theater and
+     * refunds their tickets.
+     * The tickets are taken off the sales of their movie, along with the
+     * money paid for them.
+     *
+     * @param name the name of the customer party to refund.
+     * @return the tickets refunded and the money paid back.
+     */
+    public TicketSales refundCustomer(String name)
+    {
+        try {
+            Customer customer = customers.remove(name);
+            return movies.get(customer.getMovie()).refundParty(name);
+        }
+        catch (ListException ex) {
+            throw new TheaterException(
+                "This customer not in Movie Theater!");
+        }
+    }
+
     /**
      * Returns the total number of tickets sold for the given movie.
      *
@@ -337,29 +532,56 @@ public class Theater
      */
     public int getNumberOfTicketsSold(String movie)
     {
-        return auditoriums.get(movie).getTicketsSold();
+        return movies.get(movie).getTicketsSold();
     }
 
     /**
-     * Each auditorium keeps count of its individual ticket sales.
-     * Each auditorium's sales are printed out along with a grand total.
+     * Returns the tickets sold for the given movie and the money taken in.
+     *
+     * @param movie the movie for which to get the ticket sales.
+     * @return the ticket sales of the movie.
+     */
+    public TicketSales getSales(String movie)
+    {
+        return movies.get(movie).getSales();
+    }
+
+    /**
+     * Returns the tickets sold for all movies and the money taken in.
+     * The totals are kept up to date as tickets are sold and refunded, so
+     * this takes constant time. The returned snapshot may be read from any
+     * thread, such as one that monitors sales.
+     *
+     * @return the ticket sales of the theater.
+     */
+    public TicketSales getSales()
+    {
+        return sales.get();
+    }
+
+    /**
+     * Returns the money taken in for all auditoriums, in dollars.
+     * The total is kept as sales and refunds are made, so this takes
+     * constant time and needs no lock; getSales() gives it in exact cents.
      * @return total Total sales made so far.
      */
     public double getTicketSales()
     {
-        int totalTickets = 0;
-        for(int i = 0, numAuds = auditoriums.size(); i < numAuds; i++)
-            totalTickets += auditoriums.get(i).getTicketsSold();
-        return totalTickets * ticketPrice;
+        return sales.get().getAmount();
     }
 
     /**
      * Adds a new auditorium for a movie to be played in.
+     * The auditorium's ticket sales count towards the theater's totals.
      * @param auditorium the auditorium to be added to the theater list.
      */
     public void addAuditorium(Auditorium auditorium)
     {
+        movies.add(auditorium);
         auditoriums.add(auditorium);
+        auditorium.setTheaterSales(sales);
+        auditorium.setSeatIndex(freeSeats);
+        freeSeats.invalidate();
     }
 
     /**
@@ -370,17 +592,51 @@ public class Theater
      */
     public void removeAuditorium(String movie)
     {
+        Auditorium removed = movies.remove(movie);
         auditoriums.remove(movie);
+        removed.setTheaterSales(null);
+        removed.setSeatIndex(null);
+        freeSeats.invalidate();
     }
 
     /**
-     * Add a customer line to the theater.
+     * Add a regular customer line with a weight of 1 to the theater.
      * The line's name will be the given name.
      *
      * @param lineName the name of the new line to add to the theater.
      */
     public void addLine(String lineName) {
-        lines.add(lines.size(), new Line(lineName));
+        addLine(new Line(lineName));
+    }
+
+    /**
+     * Add a customer line to the theater.
+     * The line's length is multiplied by the given weight when customers
+     * choose the shortest line. Only customers with children may enter an
+     * express line.
+     *
+     * @param lineName the name of the new line to add to the theater.
+     * @param weight the positive weight of the line's length.
+     * @param express if true, the line is an express line.
+     */
+    public void addLine(String lineName, double weight, boolean express) {
+        addLine(new Line(lineName, weight, express));
+    }
+
+    /**
+     * Add the given customer line to the theater.
+     * Once added, customers must only enter and leave the line through this
+     * theater.
+     *
+     * @param line the new line to add to the theater.
+     */
+    public void addLine(Line line) {
+        int lineIndex = lines.size();
+        lines.add(lineIndex, line);
+        if (line.isExpress())
+            expressLines.add(lineIndex, line.getWeightedLength());
+        else
+            regularLines.add(lineIndex, line.getWeightedLength());
     }
 
     /**
@@ -390,10 +646,10 @@ public class Theater
      */
     public boolean allLinesEmpty()
     {
-        boolean allEmpty = true;
-        for (int i = 0, size = lines.size(); i < size && allEmpty; i++)
-            allEmpty = lines.get(i).isEmpty();
-        return allEmpty;
+        for (Line line : lines)
+            if (! line.isEmpty())
+                return false;
+        return true;
     }
 
     /**
@@ -403,10 +659,10 @@ public class Theater
      */
     public boolean allMoviesEmpty()
     {
-        boolean allEmpty = true;
-        for (int i = 0, size = auditoriums.size(); i < size && allEmpty; i++)
-            allEmpty = auditoriums.get(i).isEmpty();
-        return allEmpty;
+        for (Auditorium aud : auditoriums)
+            if (! aud.isEmpty())
+                return false;
+        return true;
     }
 
     /**
@@ -420,6 +676,144 @@ public class Theater
      */
     public String getSeatingChart(String movie)
     {
-        return auditoriums.get(movie).generateSeatingChart();
+        return movies.get(movie).generateSeatingChart();
+    }
+
+    /**
+     * Writes the seating chart of the auditorium playing the given movie to
+     * the given destination.
+     * The chart written is the same as the one returned by getSeatingChart(),
+     * but it is never held in memory as a whole.
+     *
+     * @param movie the movie indicating which Auditorium to write the chart for
+     * @param out the destination to write the seating chart to.
+     * @throws IOException if writing to the destination fails.
+     */
+    public void writeSeatingChart(String movie, Appendable out)
+        throws IOException
+    {
+        movies.get(movie).writeSeatingChart(out);
+    }
+
+    /**
+     * Returns the compact seating chart of the auditorium playing the given
+     * movie.
+     * The compact chart lists the runs of free seats and of seats held by
+     * each party, one line per row.
+     *
+     * @param movie the movie indicating which Auditorium to get seating chart for
+     * @return the given movie's auditorium's compact seating chart.
+     */
+    public String getCompactSeatingChart(String movie)
+    {
+        return movies.get(movie).generateCompactSeatingChart();
+    }
+
+    /**
+     * Writes the compact seating chart of the auditorium playing the given 
+     * movie to the given destination.
+     *
+     * @param movie the movie indicating which Auditorium to write the chart for
+     * @param out the destination to write the seating chart to.
+     * @throws IOException if writing to the destination fails.
+     */
+    public void writeCompactSeatingChart(String movie, Appendable out)
+        throws IOException
+    {
+        movies.get(movie).writeCompactSeatingChart(out);
+    }
+
+    /**
+     * Returns the auditorium playing the given movie.
+     * A ListException is thrown if no auditorium is playing the movie.
+     *
+     * @param movie the movie being played by the auditorium.
+     * @return the auditorium playing the movie.
+     */
+    protected Auditorium getAuditorium(String movie)
+    {
+        return movies.get(movie);
+    }
+
+    /**
+     * Returns the auditorium at the given index.
+     * The auditoriums are in ascending alphabetical order of their movies.
+     *
+     * @param index the index of the auditorium.
+     * @return the auditorium at the given index.
+     */
+    protected Auditorium getAuditorium(int index)
+    {
+        return auditoriums.get(index);
+    }
+
+    /**
+     * Returns all the auditoriums, in ascending alphabetical order of their
+     * movies. The array is a copy, so it stays the same if auditoriums are
+     * later added or removed.
+     *
+     * @return the auditoriums.
+     */
+    protected Auditorium[] getAuditoriums()
+    {
+        Auditorium[] screens = new Auditorium[auditoriums.size()];
+        int i = 0;
+        for (Auditorium aud : auditoriums)
+            screens[i++] = aud;
+        return screens;
+    }
+
+    /**
+     * Returns the customer line at the given index.
+     *
+     * @param lineIndex the index of the line.
+     * @return the line at the given index.
+     */
+    protected Line getLine(int lineIndex)
+    {
+        return lines.get(lineIndex);
+    }
+
+    /**
+     * Adds a saved customer back to this theater's customer table, without
+     * putting them in a line or seating them.
+     *
+     * @param customer the customer.
+     */
+    protected void restoreCustomer(Customer customer)
+    {
+        try {
+            customers.add(customer);
+        }
+        catch (ListException ex) {
+            throw new TheaterException(
+                "Customer " + customer.getKey() + " is already in the theater!");
+        }
+    }
+
+    /**
+     * Puts a saved customer back at the end of the line at the given index,
+     * without choosing a line or adding them to the customer table.
+     *
+     * @param customer the customer.
+     * @param lineIndex the index of the customer's line.
+     */
+    protected void restoreToLine(Customer customer, int lineIndex)
+    {
+        lines.get(lineIndex).enqueue(customer);
+        lineChanged(lineIndex);
+    }
+
+    /**
+     * Removes all records of the customer with the given name from the 
+     * theater's customer table, without touching any line or auditorium.
+     * A ListException is thrown if no such customer is in the theater.
+     *
+     * @param name the name of the customer.
+     * @return the removed customer.
+     */
+    protected Customer removeCustomer(String name)
+    {
+        return customers.remove(name);
     }
 }
@@ -0,0 +1,382 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Runs the Wonderful Movie Theater Program from a command file.
+ * <p>
+ * Unlike the interactive TheaterDriver, no prompts are shown and nothing is
+ * asked of the user. Each line of the command file holds one operation and
+ * its arguments, separated by whitespace. Blank lines and lines starting with
+ * '#' are ignored. The following commands are understood:
+ * <p>  price AMOUNT                    - Sets the price of a ticket.
+ * <p>  auditorium MOVIE ROWS SEATS [SEAT-MAP] - Adds an auditorium for a movie.
+ * <p>  line NAME [WEIGHT] [express]    - Adds a customer line.
+ * <p>  serve INDEX                     - Sets the next line to be served.
+ * <p>  enter NAME PARTY-SIZE MOVIE [child] - A customer enters the theater.
+ * <p>  buy [alternate]                 - The next customer buys tickets.
+ * <p>  leave NAME                      - A customer leaves the theater.
+ * <p>  refund NAME                     - A customer leaves with a refund.
+ * <p>  chart MOVIE [compact]           - Displays a seating chart.
+ * <p>  lines                           - Displays the customers in line.
+ * <p>  report                          - Displays ticket sales.
+ * <p>  closing [compact]               - Displays the end-of-night report.
+ * <p>
+ * A line's length is multiplied by its weight, 1 unless given, when customers
+ * choose the shortest line; only customers with children may enter express
+ * lines. Lines are served starting with the first line added unless a serve
+ * command says otherwise. When a customer's movie is sold out, they see the
+ * first movie with enough seats if the buy command says "alternate"; otherwise
+ * they leave. Movie titles may not contain whitespace.
+ * <p>
+ * Auditoriums keep their seats in a BitmapSeatMap unless the auditorium
+ * command names another kind of seat map: array, bitmap, list or gap (see
+ * Auditorium.newSeatMap). The bitmap is the default since batches tend to fill
+ * far more seats than an interactive session. A batch may also start from the
+ * auditoriums and lines of a TheaterCatalog. All output goes through a single
+ * buffer and is only flushed when the batch is finished. A command that fails
+ * prints its line number and the reason, and the batch continues with the next
+ * command.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterBatch {
+
+    /* The theater the commands are run against. */
+    private Theater theater;
+    /* The destination of all output. */
+    private PrintWriter out;
+    /* The number of the command line being run. */
+    private int lineNumber = 0;
+
+    /**
+     * Constructs a batch that runs its commands against the given theater
+     * and writes its output to the given destination.
+     *
+     * @param theater the theater to run the commands against.
+     * @param out the destination of all output.
+     */
+    public TheaterBatch(Theater theater, Writer out) {
+        this.theater = theater;
+        this.out = new PrintWriter(out);
+    }
+
+    /**
+     * Runs the command file with the given name against an empty theater.
+     * Output is written to stdout.
+     *
+     * @param fileName the name of the command file.
+     * @throws IOException if the command file cannot be read.
+     */
+    public static void run(String fileName) throws IOException {
+        run(fileName, (TheaterCatalog) null);
+    }
+
+    /**
+     * Runs the command file with the given name against a theater built
+     * from the given catalog, or against an empty theater if the catalog is
+     * null. Output is written to stdout.
+     *
+     * @param fileName the name of the command file.
+     * @param catalog the catalog of the theater, or null.
+     * @throws IOException if the command file cannot be read.
+     */
+    public static void run(String fileName, TheaterCatalog catalog)
+        throws IOException {
+        Writer stdout = new BufferedWriter(
+                        new OutputStreamWriter(System.out), 1 << 16);
+        Theater theater = (catalog != null) ? catalog.createTheater()
+            : new Theater(0);
+        try (Reader commands = new FileReader(fileName)) {
+            new TheaterBatch(theater, stdout).run(commands);
+        }
+    }
+
+    /**
+     * Runs the command file with the given name against a theater kept in
+     * the journal with the given name. The theater is first rebuilt from
+     * the journal, so a batch may pick up where an earlier one left off.
+     * Once the batch is finished, the theater is saved in a snapshot next
+     * to the journal, named after it with ".snapshot" added, and the
+     * journal is emptied. The next batch then starts from the snapshot.
+     * Output is written to stdout.
+     *
+     * @param fileName the name of the command file.
+     * @param journalName the name of the journal file.
+     * @throws IOException if the command file or journal cannot be read.
+     */
+    public static void run(String fileName, String journalName)
+        throws IOException {
+        run(fileName, journalName, null);
+    }
+
+    /**
+     * Runs the command file with the given name against a theater kept in
+     * the journal with the given name, as above. If the journal holds no
+     * auditoriums and no lines yet, those of the given catalog are added
+     * first.
+     *
+     * @param fileName the name of the command file.
+     * @param journalName the name of the journal file.
+     * @param catalog the catalog of a new theater, or null.
+     * @throws IOException if the command file or journal cannot be read.
+     */
+    public static void run(String fileName, String journalName,
+        TheaterCatalog catalog) throws IOException {
+        Writer stdout = new BufferedWriter(
+                        new OutputStreamWriter(System.out), 1 << 16);
+        try (Reader commands = new FileReader(fileName);
+             JournaledTheater theater = new JournaledTheater(0, journalName,
+                 journalName + ".snapshot",
+                 JournaledTheater.DEFAULT_GROUP_SIZE)) {
+            if (catalog != null && theater.getNumberOfMovies() == 0
+                    && theater.getNumberOfLines() == 0)
+                catalog.addTo(theater);
+            new TheaterBatch(theater, stdout).run(commands);
+            theater.checkpoint(journalName + ".snapshot");
+        }
+    }
+
+    /**
+     * Runs every command read from the given source.
+     * The output is flushed once all commands have run.
+     *
+     * @param commands the source of commands.
+     * @throws IOException if the commands cannot be read.
+     */
+    public void run(Reader commands) throws IOException {
+        BufferedReader in = new BufferedReader(commands, 1 << 16);
+        for (String command; (command = in.readLine()) != null;) {
+            lineNumber++;
+            command = command.trim();
+            if (! command.isEmpty() && command.charAt(0) != '#')
+                execute(command.split("\\s+"));
+        }
+        out.flush();
+    }
+
+    /**
+     * Runs a single command.
+     * Any failure is reported and does not stop the batch.
+     *
+     * @param args the command followed by its arguments.
+     */
+    public void execute(String[] args) {
+        try {
+            dispatch(args);
+        }
+        catch (TheaterException | ListException | QueueException ex) {
+            fail(ex.getMessage());
+        }
+        catch (NumberFormatException ex) {
+            fail("Expected a number: " + ex.getMessage());
+        }
+        catch (ArrayIndexOutOfBoundsException ex) {
+            fail("Missing arguments for " + args[0]);
+        }
+    }
+
+    /**
+     * Triggers the appropriate action based on the given command.
+     *
+     * @param args the command followed by its arguments.
+     */
+    private void dispatch(String[] args) {
+        switch (args[0]) {
+            case "price":
+                theater.setTicketPrice(Double.parseDouble(args[1]));
+                break;
+            case "auditorium":
+                addAuditorium(args);
+                break;
+            case "line":
+                addLine(args);
+                break;
+            case "serve":
+                theater.setNextLine(Integer.parseInt(args[1]));
+                break;
+            case "enter":
+                enterCustomer(args);
+                break;
+            case "buy":
+                buyTickets(args.length > 1 && args[1].equals("alternate"));
+                break;
+            case "leave":
+                theater.removeFromTheater(args[1]);
+                out.println("Customer " + args[1] + " has left the Movie Theater.");
+                break;
+            case "refund":
+                out.println("Customer " + args[1] + " was refunded "
+                    + theater.refundCustomer(args[1]) + ".");
+                break;
+            case "chart":
+                displaySeating(args[1],
+                    args.length > 2 && args[2].equals("compact"));
+                break;
+            case "lines":
+                for (int i = 0, numLines = theater.getNumberOfLines();
+                        i < numLines; i++)
+                    out.println(theater.getLineInfo(i));
+                break;
+            case "report":
+                displayTicketInfo();
+                break;
+            case "closing":
+                displayClosingReport(args.length > 1
+                    && args[1].equals("compact"));
+                break;
+            default:
+                fail("Unknown command " + args[0]);
+                break;
+        }
+    }
+
+    /**
+     * Adds a customer line to the theater.
+     *
+     * @param args the line command followed by the name, an optional weight,
+     *        and an optional "express".
+     */
+    private void addLine(String[] args) {
+        int next = 2;
+        double weight = 1.0;
+        if (args.length > next && ! args[next].equals("express"))
+            weight = Double.parseDouble(args[next++]);
+        boolean express = args.length > next && args[next].equals("express");
+        theater.addLine(args[1], weight, express);
+    }
+
+    /**
+     * Adds an auditorium to the theater.
+     *
+     * @param args the auditorium command followed by the movie, the number
+     *        of rows, the number of seats per row, and an optional kind of
+     *        seat map.
+     */
+    private void addAuditorium(String[] args) {
+        int rows = Integer.parseInt(args[2]);
+        int seatsPerRow = Integer.parseInt(args[3]);
+        if (rows <= 0 || seatsPerRow <= 0)
+            throw new TheaterException("Number must be greater than zero!");
+        String seatMap = (args.length > 4) ? args[4] : "bitmap";
+        theater.addAuditorium(new Auditorium(args[1], rows, seatsPerRow,
+            Auditorium.newSeatMap(seatMap, rows * seatsPerRow)));
+    }
+
+    /**
+     * Enters a customer into the theater.
+     *
+     * @param args the enter command followed by the customer's name, party
+     *        size, movie, and optionally "child".
+     */
+    private void enterCustomer(String[] args) {
+        int partySize = Integer.parseInt(args[2]);
+        if (partySize <= 0)
+            throw new TheaterException("Party size must be greater than zero!");
+        if (! theater.containsMovie(args[3]))
+            throw new TheaterException("No auditorium is playing " + args[3]);
+        Customer customer = new Customer(args[1], args[3], partySize);
+        boolean hasChild = args.length > 4 && args[4].equals("child");
+        Line line = theater.enqueueCustomer(customer, hasChild);
+        out.println("Customer " + args[1] + " is in " + line.getName()
+            + " ticket line.");
+    }
+
+    /**
+     * Serves the next customer in line.
+     * If their movie is sold out, they see the first movie with enough seats
+     * if alternate is true. Otherwise they leave the theater.
+     *
+     * @param alternate whether the customer will see another movie.
+     */
+    private void buyTickets(boolean alternate) {
+        if (theater.getNextLine() == -1)
+            theater.setNextLine(0);
+        Customer customer = theater.getNextCustomer();
+        if (customer == null) {
+            out.println("There are no customers waiting in any line.");
+            return;
+        }
+        int partySize = customer.getPartySize();
+        if (! theater.hasEnoughSeats(customer.getMovie(), partySize)) {
+            String movie = theater.findFirstAvailableMovie(partySize);
+            if (alternate && ! movie.isEmpty())
+                customer.setMovie(movie);
+            else {
+                theater.removeFromLine();
+                out.println("Customer " + customer.getKey()
+                    + " has left the Movie Theater.");
+                return;
+            }
+        }
+        theater.seatNextCustomer();
+        out.println(customer.getKey() + ", party of " + partySize
+            + ", has been seated in the " + customer.getMovie()
+            + " Movie Theater.");
+    }
+
+    /**
+     * Displays the seating chart for the given movie.
+     *
+     * @param movie the movie for which to display the seating chart.
+     * @param compact if true, the compact seating chart is displayed.
+     */
+    private void displaySeating(String movie, boolean compact) {
+        out.print("Here's the seating chart for the " + movie
+            + " Movie Theater:");
+        try {
+            if (compact)
+                theater.writeCompactSeatingChart(movie, out);
+            else
+                theater.writeSeatingChart(movie, out);
+        }
+        catch (IOException ex) {
+            // A PrintWriter never throws an IOException.
+            throw new IllegalStateException(ex);
+        }
+        out.println();
+    }
+
+    /**
+     * Displays the number of tickets sold for each movie as well as the
+     * total earnings.
+     */
+    private void displayTicketInfo() {
+        for (String movie : theater.getMovies())
+            out.println(theater.getNumberOfTicketsSold(movie)
+                + " tickets have been sold for the " + movie + " Movie.");
+        out.println("Total earnings: $" + theater.getTicketSales());
+    }
+
+    /**
+     * Displays the end-of-night report: the sales, occupancy, and seating
+     * chart of every auditorium, followed by the theater's totals. The
+     * auditoriums are rendered in parallel; see TheaterReport.
+     *
+     * @param compact if true, compact seating charts are displayed.
+     */
+    private void displayClosingReport(boolean compact) {
+        try {
+            new TheaterReport(theater, compact).write(out);
+        }
+        catch (IOException ex) {
+            // A PrintWriter never throws an IOException.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Reports a failed command along with its line number.
+     *
+     * @param message the reason the command failed.
+     */
+    private void fail(String message) {
+        out.println("Line " + lineNumber + ": " + message);
+    }
+}
@@ -0,0 +1,316 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * A catalog of the auditoriums and customer lines a theater opens with.
+ * <p>
+ * A catalog is read from a file in which each line describes one auditorium
+ * or customer line, or the ticket price, with its fields separated by
+ * whitespace. Blank lines and lines starting with '#' are ignored:
+ * <p>  price AMOUNT                         - The price of a ticket.
+ * <p>  auditorium MOVIE ROWS SEATS [PRICE]  - An auditorium for a movie, with
+ *                                          its own ticket price if given.
+ * <p>  line NAME [WEIGHT] [express]         - A customer line.
+ * <p>
+ * These are the same as the batch commands of the same names. Movie titles
+ * may not contain whitespace, and no two auditoriums may play the same
+ * movie. A line of the file that cannot be understood stops the loading with
+ * a TheaterException that gives its line number.
+ * <p>
+ * A catalog only describes a theater; every call to createTheater() builds
+ * a new one. Auditoriums keep their seats in an ArraySeatMap.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterCatalog {
+
+    /* The auditoriums, in the order they were read. */
+    private ListInterface<Screen> screens = new ArrayBasedList<Screen>();
+    /* The same auditoriums, by movie, to find duplicates. */
+    private KeyedHashTable<Screen, String> movies =
+        new KeyedHashTable<Screen, String>();
+    /* The customer lines, in the order they were read. */
+    private ListInterface<LineSpec> lines = new ArrayBasedList<LineSpec>();
+    /* The price of a ticket, or a negative number if none was given. */
+    private double ticketPrice = -1;
+
+    /**
+     * Reads the catalog in the file with the given name.
+     *
+     * @param fileName the name of the catalog file.
+     * @return the catalog.
+     * @throws IOException if the file cannot be read.
+     */
+    public static TheaterCatalog load(String fileName) throws IOException {
+        try (Reader in = new FileReader(fileName)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a catalog from the given source.
+     *
+     * @param source the source of the catalog.
+     * @return the catalog.
+     * @throws IOException if the source cannot be read.
+     */
+    public static TheaterCatalog read(Reader source) throws IOException {
+        TheaterCatalog catalog = new TheaterCatalog();
+        BufferedReader in = new BufferedReader(source, 1 << 16);
+        int lineNumber = 0;
+        for (String entry; (entry = in.readLine()) != null;) {
+            lineNumber++;
+            entry = entry.trim();
+            if (entry.isEmpty() || entry.charAt(0) == '#')
+                continue;
+            try {
+                catalog.add(split(entry));
+            }
+            catch (NumberFormatException ex) {
+                throw new TheaterException("Line " + lineNumber
+                    + ": Expected a number: " + ex.getMessage());
+            }
+            catch (ArrayIndexOutOfBoundsException ex) {
+                throw new TheaterException("Line " + lineNumber
+                    + ": Missing fields for " + entry);
+            }
+            catch (TheaterException ex) {
+                throw new TheaterException("Line " + lineNumber + ": "
+                    + ex.getMessage());
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Returns true if the catalog gives the price of a ticket.
+     *
+     * @return true if the price of a ticket is given.
+     */
+    public boolean hasTicketPrice() {
+        return ticketPrice >= 0;
+    }
+
+    /**
+     * Returns the price of a ticket, or zero if the catalog does not give
+     * one.
+     *
+     * @return the price of a ticket.
+     */
+    public double getTicketPrice() {
+        return Math.max(ticketPrice, 0);
+    }
+
+    /**
+     * Returns the number of auditoriums in the catalog.
+     *
+     * @return the number of auditoriums.
+     */
+    public int getNumberOfAuditoriums() {
+        return screens.size();
+    }
+
+    /**
+     * Returns the movies of the auditoriums in the catalog, in the order
+     * they were read.
+     *
+     * @return the movies.
+     */
+    public String[] getMovies() {
+        String[] titles = new String[screens.size()];
+        int i = 0;
+        for (Screen screen : screens)
+            titles[i++] = screen.getKey();
+        return titles;
+    }
+
+    /**
+     * Returns the names of the customer lines in the catalog, in the order
+     * they were read.
+     *
+     * @return the names of the lines.
+     */
+    public String[] getLineNames() {
+        String[] names = new String[lines.size()];
+        int i = 0;
+        for (LineSpec line : lines)
+            names[i++] = line.name;
+        return names;
+    }
+
+    /**
+     * Builds a theater with the ticket price, auditoriums and customer lines
+     * of this catalog. The next line to be served is left unset.
+     *
+     * @return the new theater.
+     */
+    public Theater createTheater() {
+        Theater theater = new Theater(getTicketPrice());
+        addTo(theater);
+        return theater;
+    }
+
+    /**
+     * Adds the auditoriums and customer lines of this catalog to the given
+     * theater. The theater's ticket price is only changed if the catalog
+     * gives one.
+     *
+     * @param theater the theater to add to.
+     */
+    public void addTo(Theater theater) {
+        if (hasTicketPrice())
+            theater.setTicketPrice(ticketPrice);
+        for (Screen screen : screens) {
+            Auditorium aud = new Auditorium(screen.getKey(), screen.rows,
+                screen.seatsPerRow);
+            if (screen.price >= 0)
+                aud.setTicketPrice(screen.price);
+            theater.addAuditorium(aud);
+        }
+        for (LineSpec line : lines)
+            theater.addLine(line.name, line.weight, line.express);
+    }
+
+    /**
+     * Splits an entry of the catalog into its whitespace-separated fields.
+     * This is done by hand rather than with a regular expression, since it
+     * is done once for every auditorium while the program is starting.
+     *
+     * @param entry the entry, without leading or trailing whitespace.
+     * @return the fields of the entry.
+     */
+    private static String[] split(String entry) {
+        String[] fields = new String[6];
+        int count = 0;
+        for (int start = 0, length = entry.length(); start < length;) {
+            int end = start;
+            while (end < length && ! Character.isWhitespace(entry.charAt(end)))
+                end++;
+            if (count == fields.length)
+                fields = Arrays.copyOf(fields, count * 2);
+            fields[count++] = entry.substring(start, end);
+            start = end;
+            while (start < length
+                    && Character.isWhitespace(entry.charAt(start)))
+                start++;
+        }
+        return Arrays.copyOf(fields, count);
+    }
+
+    /**
+     * Adds a single entry of the catalog.
+     *
+     * @param fields the kind of entry followed by its fields.
+     */
+    private void add(String[] fields) {
+        switch (fields[0]) {
+            case "price":
+                ticketPrice = parsePrice(fields[1]);
+                break;
+            case "auditorium":
+                addScreen(fields);
+                break;
+            case "line":
+                addLine(fields);
+                break;
+            default:
+                throw new TheaterException("Unknown entry " + fields[0]);
+        }
+    }
+
+    /**
+     * Reads a price. Double.parseDouble() also accepts "NaN" and "Infinity",
+     * which are no more a price than a negative number is.
+     *
+     * @param field the field giving the price.
+     * @return the price.
+     */
+    private static double parsePrice(String field) {
+        double price = Double.parseDouble(field);
+        if (! Double.isFinite(price) || price < 0)
+            throw new TheaterException("Price must not be negative!");
+        return price;
+    }
+
+    /**
+     * Adds an auditorium to the catalog.
+     *
+     * @param fields the auditorium entry followed by the movie, the number
+     *        of rows, the number of seats per row, and an optional price.
+     */
+    private void addScreen(String[] fields) {
+        int rows = Integer.parseInt(fields[2]);
+        int seatsPerRow = Integer.parseInt(fields[3]);
+        if (rows <= 0 || seatsPerRow <= 0)
+            throw new TheaterException("Number must be greater than zero!");
+        double price = (fields.length > 4) ? parsePrice(fields[4]) : -1;
+        if (movies.contains(fields[1]))
+            throw new TheaterException("Another auditorium is playing "
+                + fields[1]);
+        Screen screen = new Screen(fields[1], rows, seatsPerRow, price);
+        movies.add(screen);
+        screens.add(screens.size(), screen);
+    }
+
+    /**
+     * Adds a customer line to the catalog.
+     *
+     * @param fields the line entry followed by the name, an optional weight,
+     *        and an optional "express".
+     */
+    private void addLine(String[] fields) {
+        int next = 2;
+        double weight = 1.0;
+        if (fields.length > next && ! fields[next].equals("express")) {
+            weight = Double.parseDouble(fields[next++]);
+            if (! Double.isFinite(weight) || weight <= 0)
+                throw new TheaterException("Weight must be greater than zero!");
+        }
+        boolean express = fields.length > next
+            && fields[next].equals("express");
+        lines.add(lines.size(), new LineSpec(fields[1], weight, express));
+    }
+
+    /**
+     * The description of an auditorium, identified by its movie.
+     */
+    private static class Screen extends KeyedItem<String> {
+
+        /* The number of rows of seats. */
+        final int rows;
+        /* The number of seats in each row. */
+        final int seatsPerRow;
+        /* The auditorium's own ticket price, or -1 if it has none. */
+        final double price;
+
+        Screen(String movie, int rows, int seatsPerRow, double price) {
+            super(movie);
+            this.rows = rows;
+            this.seatsPerRow = seatsPerRow;
+            this.price = price;
+        }
+    }
+
+    /**
+     * The description of a customer line.
+     */
+    private static class LineSpec {
+
+        /* The name of the line. */
+        final String name;
+        /* The weight of the line's length. */
+        final double weight;
+        /* Whether only customers with children may enter the line. */
+        final boolean express;
+
+        LineSpec(String name, double weight, boolean express) {
+            this.name = name;
+            this.weight = weight;
+            this.express = express;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.InputStreamReader;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.lang.NumberFormatException;
 
 /**
@@ -17,35 +20,82 @@ public class TheaterDriver {
     public static BufferedReader stdin = new BufferedReader(
                                          new InputStreamReader(
                                          System.in));
+
+    /* The movies played when no catalog is given. */
+    private static final String[] FEATURES = {"Life", "Logan"};
+    /* 
+     * The largest number of movies that are each given a seating chart 
+     * option of their own in the menu. Any more share a single option.
+     */
+    private static final int MENU_MOVIES = 4;
+
+    /* The catalog the theater was built from, or null if there is none. */
+    private static TheaterCatalog catalog = null;
+    /* The answers for choosing the line to serve first, by line index. */
+    private static String[] lineChoices = {"Express", "Reg1", "Reg2"};
     
     /**
      * The program's main method.
      * Prints a greeting message, creates a theater with auditoriums for 
      * the "Life" and "Logan" movies, and adds three customer lines to the 
      * theater. Then, runs the program loop.
+     * <p>
+     * If "-catalog" and the name of a catalog file are given first, the 
+     * theater's auditoriums, lines, and ticket price are instead read from
+     * that file; see TheaterCatalog for its format. The user is then only 
+     * asked for the ticket price, and only if the catalog does not give it.
+     * <p>
+     * If the name of a command file is given, the program instead runs the
+     * commands in that file without prompting. See TheaterBatch for the 
+     * format of the command file. If the name of a journal file follows, the
+     * theater is kept in that journal from one run to the next.
      *
-     * @param args program commandline arguments (not used)
+     * @param args program commandline arguments: an optional catalog file,
+     *        then an optional command file and journal file
      */
     public static void main(String[] args) {
+
+        int first = 0;
+        if (args.length > 1 && args[0].equals("-catalog")) {
+            try {
+                catalog = TheaterCatalog.load(args[1]);
+            }
+            catch (IOException ex) {
+                System.out.println("Cannot read " + args[1] + ": " 
+                    + ex.getMessage());
+                return;
+            }
+            catch (TheaterException ex) {
+                System.out.println(args[1] + ": " + ex.getMessage());
+                return;
+            }
+            first = 2;
+        }
+
+        if (args.length > first) {
+            try {
+                if (args.length > first + 1)
+                    TheaterBatch.run(args[first], args[first + 1], catalog);
+                else
+                    TheaterBatch.run(args[first], catalog);
+            }
+            catch (IOException ex) {
+                System.out.println("Cannot read " + args[first] + ": " 
+                    + ex.getMessage());
+            }
+            return;
+        }
     
         // Prints Theater greeting.
         System.out.println("\nWelcome to the Wonderful Movie Theater program!" +
-            "\n\tTonight's feature are:\n\t\t\"Life\" and \"Logan\"");
+            "\n\tTonight's feature are:\n\t\t" + describeFeatures(
+            (catalog != null) ? catalog.getMovies() : FEATURES));
 
-        // Assembles a theater with users's input.
-        System.out.println("\nPlease specifiy the size of the Movie Theaters:");
-        Auditorium logan = createAuditorium("Logan");
-        Auditorium life = createAuditorium("Life");
-        double price = getDoubleInput("\t>> Enter the price of a ticket");
-        Theater theater = new Theater(price);
-        theater.addAuditorium(logan);
-        theater.addAuditorium(life);
-        theater.addLine("express");
-        theater.addLine("first");
-        theater.addLine("second");
+        Theater theater = (catalog != null) ? openTheater() : buildTheater();
 
         // The program's main loop.
-        for (String option; ! (option = getMenuInput()).equals("8");)
+        for (String option; ! (option = getMenuInput(theater)).equals(
+                String.valueOf(6 + getNumberOfChartOptions(theater)));)
             dispatchAction(theater, option);
 
         // Closes the program.
@@ -55,6 +105,77 @@ public class TheaterDriver {
         close();
     }
     
+    /**
+     * Assembles a theater with the user's input.
+     * The user is asked for the size of the "Life" and "Logan" auditoriums
+     * and the ticket price, and the theater is given an express line and
+     * two regular lines.
+     *
+     * @return the new theater.
+     */
+    public static Theater buildTheater() {
+        System.out.println("\nPlease specifiy the size of the Movie Theaters:");
+        Auditorium logan = createAuditorium("Logan");
+        Auditorium life = createAuditorium("Life");
+        double price = getDoubleInput("\t>> Enter the price of a ticket");
+        Theater theater = new Theater(price);
+        theater.addAuditorium(logan);
+        theater.addAuditorium(life);
+        addDefaultLines(theater);
+        return theater;
+    }
+
+    /**
+     * Builds a theater from the catalog.
+     * The user is asked for the ticket price if the catalog does not give
+     * it. If the catalog has no lines, the theater is given an express line
+     * and two regular lines; otherwise, the user chooses the line to serve
+     * first by its name.
+     *
+     * @return the new theater.
+     */
+    public static Theater openTheater() {
+        Theater theater = catalog.createTheater();
+        if (! catalog.hasTicketPrice())
+            theater.setTicketPrice(
+                getDoubleInput("\t>> Enter the price of a ticket"));
+        if (theater.getNumberOfLines() == 0)
+            addDefaultLines(theater);
+        else
+            lineChoices = catalog.getLineNames();
+        return theater;
+    }
+
+    /**
+     * Adds an express line and two regular lines to the given theater.
+     *
+     * @param theater the theater to add the lines to.
+     */
+    public static void addDefaultLines(Theater theater) {
+        theater.addLine("express", 0.5, true);
+        theater.addLine("first");
+        theater.addLine("second");
+    }
+
+    /**
+     * Returns the movies being played, quoted and listed for the greeting.
+     * If there are too many to list, only their number is given.
+     *
+     * @param movies the movies being played.
+     * @return the list of movies.
+     */
+    public static String describeFeatures(String[] movies) {
+        if (movies.length > MENU_MOVIES)
+            return movies.length + " movies";
+        String features = "";
+        for (int i = 0; i < movies.length; i++) {
+            if (i > 0)
+                features += (i == movies.length - 1) ? " and " : ", ";
+            features += '"' + movies[i] + '"';
+        }
+        return features;
+    }
+
     /**
      * Constructs and returns an auditorium.
      * Prompts the user for specifications for the auditorium that will play
@@ -237,7 +358,8 @@ public class TheaterDriver {
 
     /**
      * Prints the program menu and gets user's menu option.
-     * The program menu contains the following options:
+     * For the "Life" and "Logan" movies, the program menu contains the 
+     * following options:
        <p>  1. Customer(s) enter(s) Movie Theater.
        <p>  2. Customer buys ticket(s).
        <p>  3. Customer(s) leave(s) the theater.
@@ -247,25 +369,58 @@ public class TheaterDriver {
        <p>  7. Display number of tickets sold and total earnings.
        <p>  8. End the program.
        <p> 
+     * Each movie has a seating chart option of its own, unless there are 
+     * more than four movies. Then a single option asks for the movie.
      * Returns the user's menu choice.
      *
+     * @param theater the theater whose movies are listed.
      * @return the user's menu choice.
      */
-    public static String getMenuInput() {
-        System.out.println(
+    public static String getMenuInput(Theater theater) {
+        String[] movies = getMenuMovies(theater);
+        int charts = getNumberOfChartOptions(theater);
+        StringBuilder menu = new StringBuilder(
             "\nSelect an operation from the following menu:"
             + "\n\t1. Customer(s) enter(s) Movie Theater."
             + "\n\t2. Customer buys ticket(s)."
             + "\n\t3. Customer(s) leave(s) the theater."
-            + "\n\t4. Display info about customers waiting for tickets."
-            + "\n\t5. Display seating chart for Life Movie Theater."
-            + "\n\t6. Display seating chart for Logan Movie Theater."
-            + "\n\t7. Display number of tickets sold and total earnings."
-            + "\n\t8. End the program."
-        );
+            + "\n\t4. Display info about customers waiting for tickets.");
+        for (int i = 0; i < movies.length; i++)
+            menu.append("\n\t" + (5 + i) + ". Display seating chart for " 
+                + movies[i] + " Movie Theater.");
+        if (charts > movies.length)
+            menu.append("\n\t" + (5 + movies.length) 
+                + ". Display seating chart for a Movie Theater.");
+        menu.append("\n\t" + (5 + charts) 
+            + ". Display number of tickets sold and total earnings."
+            + "\n\t" + (6 + charts) + ". End the program.");
+        System.out.println(menu);
         return getInput(">> Make your selection now");
     }
 
+    /**
+     * Returns the movies that have a seating chart option of their own in
+     * the menu.
+     *
+     * @param theater the theater whose movies are listed.
+     * @return the movies with their own menu option.
+     */
+    public static String[] getMenuMovies(Theater theater) {
+        return (theater.getNumberOfMovies() <= MENU_MOVIES) ?
+            theater.getMovies() : new String[0];
+    }
+
+    /**
+     * Returns the number of seating chart options in the menu.
+     *
+     * @param theater the theater whose movies are listed.
+     * @return the number of seating chart options.
+     */
+    public static int getNumberOfChartOptions(Theater theater) {
+        int numMovies = theater.getNumberOfMovies();
+        return (numMovies <= MENU_MOVIES) ? numMovies : 1;
+    }
+
     /*
      * ************************************************************************
      * Program Actions
@@ -294,21 +449,40 @@ public class TheaterDriver {
             case "4":
                 displayCustomerLine(theater);
                 break;
-            case "5":
-                displaySeating(theater, "Life");
-                break;
-            case "6":
-                displaySeating(theater, "Logan");
-                break;
-            case "7":
-                displayTicketInfo(theater);
-                break;
             default:
-                System.out.println(
-                    "I'm sorry. I don't understand " + option);
+                dispatchReport(theater, option);
                 break;
         }
     }
+
+    /**
+     * Displays the seating chart or ticket report picked by the given option.
+     * The numbers of these options depend on the theater's movies; see 
+     * getMenuInput().
+     *
+     * @param theater the theater on which to report.
+     * @param option this option dictates which report will be displayed.
+     */
+    public static void dispatchReport(Theater theater, String option) {
+        String[] movies = getMenuMovies(theater);
+        int charts = getNumberOfChartOptions(theater);
+        for (int i = 0; i < movies.length; i++)
+            if (option.equals(String.valueOf(5 + i))) {
+                displaySeating(theater, movies[i]);
+                return;
+            }
+        if (charts > movies.length 
+                && option.equals(String.valueOf(5 + movies.length))) {
+            String[] all = theater.getMovies();
+            displaySeating(theater, 
+                all[askQuestion("\t>> Enter movie name", all, false)]);
+        }
+        else if (option.equals(String.valueOf(5 + charts)))
+            displayTicketInfo(theater);
+        else
+            System.out.println(
+                "I'm sorry. I don't understand " + option);
+    }
     
     /**
      * Enter a customer into the movie theater line.
@@ -335,7 +509,7 @@ public class TheaterDriver {
                     "Customer " + input + " is already in the theater!");
         } while (name.isEmpty());
         int partySize = getIntegerInput("\t>> Enter party size");
-        String[] movies = {"Life", "Logan"};
+        String[] movies = theater.getMovies();
         int movie = askQuestion("\t>> Enter movie name", movies, false);
         String movieString = movies[movie];
         Customer customer = new Customer(name, movieString, partySize);
@@ -416,7 +590,18 @@ public class TheaterDriver {
     public static void displaySeating(Theater theater, String movie) {
         System.out.println(
             "Here's the seating chart for the " + movie + " Movie Theater:");
-        System.out.println(theater.getSeatingChart(movie)); 
+        // The chart is streamed through a buffer instead of flushing stdout
+        // after every seat.
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                          new OutputStreamWriter(System.out)));
+        try {
+            theater.writeSeatingChart(movie, out);
+        }
+        catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        out.println();
+        out.flush();
     }
 
     /**
@@ -427,10 +612,16 @@ public class TheaterDriver {
      * @param theater the theater for which to display ticket information.
      */
     public static void displayTicketInfo(Theater theater) {
-        System.out.println(theater.getNumberOfTicketsSold("Life") 
-            + " tickets have been sold for the Life Movie.");
-        System.out.println(theater.getNumberOfTicketsSold("Logan") 
-            + " ticekts have been sold for the Logan Movie.");
+        if (catalog == null) {
+            System.out.println(theater.getNumberOfTicketsSold("Life") 
+                + " tickets have been sold for the Life Movie.");
+            System.out.println(theater.getNumberOfTicketsSold("Logan") 
+                + " ticekts have been sold for the Logan Movie.");
+        }
+        else
+            for (String movie : theater.getMovies())
+                System.out.println(theater.getNumberOfTicketsSold(movie)
+                    + " tickets have been sold for the " + movie + " Movie.");
         System.out.println("Total earnings: $" + theater.getTicketSales());
     }
 
@@ -442,14 +633,15 @@ public class TheaterDriver {
 
     /**
      * Asks the user which customer line they would like to serve first.
-     * The user may choose the express line or one of the two regular lines.
+     * The user may choose the express line or one of the two regular lines,
+     * or, with a catalog that lists lines, any line by its name.
      *
      * @param theater the theater for which to determine line order.
      */
     public static void determineLineOrder(Theater theater) {
         int nextLine = askQuestion(
             "Which line would you like to serve customers first?", 
-            new String[]{"Express", "Reg1", "Reg2"},
+            lineChoices,
             true
         );
         theater.setNextLine(nextLine);
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The end-of-night report of a theater.
+ * <p>
+ * For every auditorium, the report gives the tickets sold and the money taken
+ * in, how many of its seats are filled, and its seating chart, either in full
+ * or compact. It ends with the totals for the whole theater.
+ * <p>
+ * Each auditorium's part of the report is rendered on its own, so the parts
+ * are split among the threads of a ForkJoinPool: the range of auditoriums is
+ * halved until each task holds a single auditorium. Every part is stored at
+ * its auditorium's index, so the parts come out in ascending order of their
+ * movies no matter which thread finishes first. Each auditorium is locked
+ * while its part is rendered, the same as in a ConcurrentTheater.
+ * <p>
+ * The auditoriums are copied out of the theater before any part is rendered,
+ * under the auditorium list lock for a ConcurrentTheater, and the render
+ * tasks only ever see that copy. An auditorium added while the report is
+ * made is left out of it, and one removed is still reported.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterReport {
+
+    /* The theater being reported on. */
+    private Theater theater;
+    /* Whether the seating charts are compact. */
+    private boolean compact;
+    /* The threads the parts are rendered on. */
+    private ForkJoinPool pool;
+
+    /**
+     * Constructs a report of the given theater, rendered on the common
+     * ForkJoinPool.
+     *
+     * @param theater the theater to report on.
+     * @param compact if true, compact seating charts are given.
+     */
+    public TheaterReport(Theater theater, boolean compact) {
+        this(theater, compact, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a report of the given theater, rendered on the given pool.
+     * A pool with a parallelism of one renders the parts one after another.
+     *
+     * @param theater the theater to report on.
+     * @param compact if true, compact seating charts are given.
+     * @param pool the threads to render the parts on.
+     */
+    public TheaterReport(Theater theater, boolean compact, ForkJoinPool pool) {
+        this.theater = theater;
+        this.compact = compact;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the report as a String.
+     *
+     * @return the report.
+     */
+    public String generate() {
+        StringBuilder report = new StringBuilder();
+        try {
+            write(report);
+        }
+        catch (IOException ex) {
+            // A StringBuilder never throws an IOException.
+            throw new IllegalStateException(ex);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Renders the report and writes it to the given destination.
+     * The parts are all rendered before any of them is written.
+     *
+     * @param out the destination to write the report to.
+     * @throws IOException if writing to the destination fails.
+     */
+    public void write(Appendable out) throws IOException {
+        Auditorium[] screens = theater.getAuditoriums();
+        Part[] parts = new Part[screens.length];
+        if (parts.length > 0)
+            pool.invoke(new Render(screens, parts, 0, parts.length));
+        long tickets = 0;
+        long viewers = 0;
+        long capacity = 0;
+        for (Part part : parts) {
+            out.append(part.summary).append('\n')
+                .append("Here's the seating chart for the ").append(part.movie)
+                .append(" Movie Theater:").append(part.chart).append("\n\n");
+            tickets += part.sales.getTickets();
+            viewers += part.viewers;
+            capacity += part.capacity;
+        }
+        out.append(String.valueOf(tickets))
+            .append(" tickets have been sold for ")
+            .append(String.valueOf(parts.length)).append(" movies; ")
+            .append(occupancy(viewers, capacity)).append('\n')
+            .append("Total earnings: $")
+            .append(String.valueOf(theater.getTicketSales())).append('\n');
+    }
+
+    /**
+     * Renders the part of the report for the given auditorium.
+     *
+     * @param aud the auditorium.
+     * @return the auditorium's part of the report.
+     */
+    private Part render(Auditorium aud) {
+        synchronized (aud) {
+            Part part = new Part();
+            part.movie = aud.getKey();
+            part.sales = aud.getSales();
+            part.viewers = aud.getNumberOfViewers();
+            part.capacity = aud.getSeatingCapacity();
+            part.summary = part.movie + ": " + part.sales + "; "
+                + occupancy(part.viewers, part.capacity);
+            part.chart = compact ? aud.generateCompactSeatingChart()
+                : aud.generateSeatingChart();
+            return part;
+        }
+    }
+
+    /**
+     * Returns how many of the given seats are filled, as a count and as a
+     * percentage with one decimal place.
+     *
+     * @param viewers the number of filled seats.
+     * @param capacity the total number of seats.
+     * @return the occupancy, such as "12 of 60 seats filled (20.0%)".
+     */
+    private static String occupancy(long viewers, long capacity) {
+        long tenths = (capacity > 0) ?
+            (viewers * 1000 + capacity / 2) / capacity : 0;
+        return viewers + " of " + capacity + " seats filled ("
+            + (tenths / 10) + "." + (tenths % 10) + "%)";
+    }
+
+    /**
+     * The part of the report for one auditorium.
+     */
+    private static class Part {
+
+        /* The movie playing in the auditorium. */
+        String movie;
+        /* The auditorium's ticket sales. */
+        TicketSales sales;
+        /* The number of filled seats. */
+        int viewers;
+        /* The total number of seats. */
+        int capacity;
+        /* The line giving the sales and occupancy. */
+        String summary;
+        /* The seating chart. */
+        String chart;
+    }
+
+    /**
+     * Renders the parts of the report for a range of auditoriums, splitting
+     * the range in halves until it holds a single auditorium.
+     */
+    private class Render extends RecursiveAction {
+
+        /* Tasks are never serialized; RecursiveAction is only Serializable
+           through ForkJoinTask. */
+        private static final long serialVersionUID = 1L;
+
+        /* The auditoriums being reported on. */
+        private Auditorium[] screens;
+        /* The parts, by auditorium index. */
+        private Part[] parts;
+        /* The index of the first auditorium. */
+        private int from;
+        /* The index after the last auditorium. */
+        private int to;
+
+        Render(Auditorium[] screens, Part[] parts, int from, int to) {
+            this.screens = screens;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1)
+                parts[from] = render(screens[from]);
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Render(screens, parts, from, middle),
+                    new Render(screens, parts, middle, to));
+            }
+        }
+    }
+}
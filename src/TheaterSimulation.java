@@ -0,0 +1,305 @@
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent simulation of an evening at a theater.
+ * <p>
+ * Unlike the TheaterWorkload, which runs one tick at a time on a single
+ * thread, every participant here is a thread of its own sharing a single
+ * ConcurrentTheater:
+ * <p>  - Each arriving party is a thread that calls enqueueCustomer.
+ * <p>  - Each cashier is a thread that loops on getNextCustomer and
+ *        seatNextCustomer until every party has arrived and the lines are
+ *        empty.
+ * <p>  - Each seated party becomes a viewer thread that watches its movie for
+ *        a while and then calls removeFromTheater.
+ * <p>
+ * All arriving parties are started at once, so the lines, the customer table,
+ * and the auditoriums are under real contention. The calls are timed
+ * individually and reported the same way as the TheaterWorkload.
+ * <p>
+ * The threads are virtual threads when the Java runtime provides them, which
+ * makes a hundred thousand simultaneous parties cheap. Otherwise a pool of
+ * platform threads is used instead, and arrivals and viewers take turns on
+ * its threads.
+ * <p>
+ * The following settings shape the simulation:
+ * <p>  seed      - The seed for all random choices of the parties.
+ * <p>  parties   - The total number of parties that arrive.
+ * <p>  cashiers  - The number of cashiers serving the lines.
+ * <p>  stay      - The number of milliseconds a seated party stays.
+ * <p>  children  - The fraction of parties with a child, who may use the
+ *                express line.
+ * <p>  movies, rows, seats, lines - The shape of the theater.
+ * <p>  threads   - "virtual" to use virtual threads when available, or
+ *                "platform" to always use a pool of platform threads.
+ * <p>
+ * From the command line, settings are given as name=value arguments, for
+ * example: java TheaterSimulation parties=100000 cashiers=8
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterSimulation {
+
+    /* The number of platform threads in the pool besides the cashiers. */
+    private static final int POOL_THREADS = 256;
+
+    /* The seed for all random choices. */
+    private long seed = 20170427L;
+    /* The total number of parties that arrive. */
+    private int parties = 100000;
+    /* The number of cashiers. */
+    private int cashiers = 4;
+    /* The number of milliseconds a seated party stays. */
+    private int stay = 5;
+    /* The fraction of parties with a child. */
+    private double children = 0.25;
+    /* The number of movies playing. */
+    private int movies = 8;
+    /* The number of rows in each auditorium. */
+    private int rows = 20;
+    /* The number of seats per row in each auditorium. */
+    private int seatsPerRow = 25;
+    /* The number of regular lines besides the express line. */
+    private int lines = 4;
+    /* Whether virtual threads are used when available. */
+    private boolean virtual = true;
+    /* Whether the last executor from newExecutor has virtual threads. */
+    private boolean onVirtualThreads = false;
+
+    /**
+     * Runs a simulation from the command line and prints its report.
+     *
+     * @param args the settings, as name=value arguments.
+     * @throws InterruptedException if interrupted while waiting on threads.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        TheaterSimulation simulation = new TheaterSimulation();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Expected name=value: " + arg);
+            simulation.set(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        ExecutorService threads = simulation.newExecutor();
+        System.out.println("Running on " + (simulation.isVirtual() ?
+            "virtual threads" : "platform threads"));
+        System.out.println(simulation.run(threads));
+    }
+
+    /**
+     * Changes one of this simulation's settings.
+     *
+     * @param name the name of the setting.
+     * @param value the new value of the setting.
+     */
+    public void set(String name, String value) {
+        switch (name) {
+            case "seed":     seed = Long.parseLong(value); break;
+            case "parties":  parties = Integer.parseInt(value); break;
+            case "cashiers": cashiers = Integer.parseInt(value); break;
+            case "stay":     stay = Integer.parseInt(value); break;
+            case "children": children = Double.parseDouble(value); break;
+            case "movies":   movies = Integer.parseInt(value); break;
+            case "rows":     rows = Integer.parseInt(value); break;
+            case "seats":    seatsPerRow = Integer.parseInt(value); break;
+            case "lines":    lines = Integer.parseInt(value); break;
+            case "threads":  virtual = value.equals("virtual"); break;
+            default:
+                throw new IllegalArgumentException("Unknown setting " + name);
+        }
+    }
+
+    /**
+     * Builds the theater the simulation runs against.
+     * The theater has the configured number of movies and regular lines,
+     * plus an express line.
+     *
+     * @return the new theater.
+     */
+    public ConcurrentTheater createTheater() {
+        ConcurrentTheater theater = new ConcurrentTheater(10.00);
+        for (int m = 1; m <= movies; m++)
+            theater.addAuditorium(new Auditorium("Movie" + m, rows,
+                seatsPerRow, new BitmapSeatMap(rows * seatsPerRow)));
+        theater.addLine("express", 0.5, true);
+        for (int l = 1; l <= lines; l++)
+            theater.addLine("line" + l);
+        theater.setNextLine(0);
+        return theater;
+    }
+
+    /**
+     * Returns a new executor that starts a thread per task.
+     * Virtual threads are used if they are enabled and the Java runtime has
+     * them. Otherwise the executor is a fixed pool of platform threads large
+     * enough for the cashiers and many parties at once.
+     *
+     * @return the new executor.
+     */
+    public ExecutorService newExecutor() {
+        onVirtualThreads = false;
+        if (virtual) {
+            try {
+                // Looked up by name so this class also runs on older runtimes.
+                ExecutorService threads = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                onVirtualThreads = true;
+                return threads;
+            }
+            catch (ReflectiveOperationException ex) {
+                // No virtual threads; fall back to platform threads.
+            }
+        }
+        return Executors.newFixedThreadPool(cashiers + POOL_THREADS);
+    }
+
+    /**
+     * Returns true if the last executor returned by newExecutor runs its
+     * tasks on virtual threads.
+     *
+     * @return true if the executor's threads are virtual.
+     */
+    public boolean isVirtual() {
+        return onVirtualThreads;
+    }
+
+    /**
+     * Runs the simulation against a new theater on the threads of a new
+     * executor.
+     *
+     * @return the report of the run.
+     * @throws InterruptedException if interrupted while waiting on threads.
+     */
+    public TheaterWorkload.Report run() throws InterruptedException {
+        return run(newExecutor());
+    }
+
+    /**
+     * Runs the simulation against a new theater on the threads of the given
+     * executor. The executor is shut down once the simulation is over.
+     *
+     * @param threads the executor that runs the parties and cashiers.
+     * @return the report of the run.
+     * @throws InterruptedException if interrupted while waiting on threads.
+     */
+    public TheaterWorkload.Report run(ExecutorService threads)
+        throws InterruptedException {
+        ConcurrentTheater theater = createTheater();
+        Random random = new Random(seed);
+        Customer[] arrivals = new Customer[parties];
+        boolean[] hasChild = new boolean[parties];
+        for (int i = 0; i < parties; i++) {
+            arrivals[i] = new Customer("Party" + i,
+                "Movie" + (1 + random.nextInt(movies)), 1 + random.nextInt(6));
+            hasChild[i] = random.nextDouble() < children;
+        }
+
+        TheaterWorkload.Report report = new TheaterWorkload.Report(parties);
+        AtomicInteger arrived = new AtomicInteger();
+        AtomicInteger seated = new AtomicInteger();
+        AtomicLong ticketsSold = new AtomicLong();
+        CountDownLatch cashiersDone = new CountDownLatch(cashiers);
+        long start = System.nanoTime();
+        for (int c = 0; c < cashiers; c++)
+            threads.execute(() -> {
+                try {
+                    serve(theater, threads, arrived, seated, ticketsSold,
+                        report);
+                }
+                finally {
+                    cashiersDone.countDown();
+                }
+            });
+        for (int i = 0; i < parties; i++) {
+            Customer customer = arrivals[i];
+            boolean child = hasChild[i];
+            threads.execute(() -> {
+                long before = System.nanoTime();
+                try {
+                    theater.enqueueCustomer(customer, child);
+                    report.enqueues.record(System.nanoTime() - before);
+                }
+                catch (TheaterException ex) {
+                    // Turned away at the door; counted as not seated.
+                }
+                finally {
+                    // Counted even if turned away, so the cashiers can stop.
+                    arrived.incrementAndGet();
+                }
+            });
+        }
+        // Every viewer has been started once the cashiers are done.
+        cashiersDone.await();
+        threads.shutdown();
+        threads.awaitTermination(1, TimeUnit.DAYS);
+        report.elapsed = System.nanoTime() - start;
+        report.ticketsSold = ticketsSold.get();
+        report.turnedAway = parties - seated.get();
+        return report;
+    }
+
+    /**
+     * Serves customers as one cashier until every party has arrived and the
+     * lines are empty. Each party seated is started as a viewer on the given
+     * executor.
+     *
+     * @param theater the theater being served.
+     * @param threads the executor to start viewers on.
+     * @param arrived the number of parties that have entered a line.
+     * @param seated the number of parties seated.
+     * @param ticketsSold the number of tickets sold.
+     * @param report the report to record the times in.
+     */
+    private void serve(ConcurrentTheater theater, ExecutorService threads,
+            AtomicInteger arrived, AtomicInteger seated, AtomicLong ticketsSold,
+            TheaterWorkload.Report report) {
+        while (arrived.get() < parties || ! theater.allLinesEmpty()) {
+            if (theater.getNextCustomer() == null) {
+                Thread.yield();
+                continue;
+            }
+            Customer viewer;
+            long before = System.nanoTime();
+            try {
+                viewer = theater.seatNextCustomer();
+            }
+            catch (TheaterException ex) {
+                // Sold out, or another cashier emptied the line.
+                continue;
+            }
+            report.seats.record(System.nanoTime() - before);
+            seated.incrementAndGet();
+            ticketsSold.addAndGet(viewer.getPartySize());
+            threads.execute(() -> watch(theater, viewer, report));
+        }
+    }
+
+    /**
+     * Lets a seated party watch its movie for the configured time, then
+     * removes it from the theater and times the removal.
+     *
+     * @param theater the theater the party is in.
+     * @param viewer the seated party.
+     * @param report the report to record the time in.
+     */
+    private void watch(Theater theater, Customer viewer,
+            TheaterWorkload.Report report) {
+        try {
+            Thread.sleep(stay);
+        }
+        catch (InterruptedException ex) {
+            // Leave early, but keep the interrupt for the executor.
+            Thread.currentThread().interrupt();
+        }
+        long before = System.nanoTime();
+        theater.removeFromTheater(viewer.getKey());
+        report.departures.record(System.nanoTime() - before);
+    }
+}
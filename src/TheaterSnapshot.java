@@ -0,0 +1,604 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A snapshot of the state of a Theater, saved in a memory-mapped file.
+ * <p>
+ * The snapshot holds the ticket price, the customers present in the
+ * theater, the customer lines with the customers waiting in them, and the
+ * seating of every auditorium: its shape, its ticket sales, its parties and
+ * what they paid, and the owner of every seat. The file has a fixed layout:
+ * <p>  - A header with the generation of the snapshot, the ticket price, the
+ *        next line, the number of lines, auditoriums and customers, and the
+ *        offsets of the sections below.
+ * <p>  - The customers present, in ascending order of their names.
+ * <p>  - The lines, each followed by its waiting customers. A waiting
+ *        customer is marked if they are also among the customers present.
+ * <p>  - A directory with the offset of each auditorium, in ascending order
+ *        of their movies.
+ * <p>  - The auditoriums. Each holds the movie, the rows and seats per row,
+ *        the ticket sales, its own ticket price if it has one, the parties,
+ *        and then one integer per seat naming its party, or zero if the seat
+ *        is free.
+ * <p>
+ * Opening a snapshot only maps the file. An Auditorium is built from the
+ * mapped bytes the first time it is asked for, and kept after that. The
+ * movies and their ticket sales can be read without building any
+ * Auditorium at all. An auditorium can also be opened without reading its
+ * seats, which are then read from the mapped bytes when it is first used.
+ * <p>
+ * Snapshots are written to a temporary file that replaces the old snapshot
+ * only once it is complete, so a crash never leaves a torn snapshot behind.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterSnapshot implements Closeable {
+
+    /* The magic number at the start of every snapshot file. */
+    private static final int MAGIC = 0x4D545331;
+    /* The offsets of the header fields. */
+    private static final int GENERATION = 4;
+    private static final int PRICE = 12;
+    private static final int NEXT_LINE = 20;
+    private static final int NUM_LINES = 24;
+    private static final int NUM_AUDITORIUMS = 28;
+    private static final int NUM_CUSTOMERS = 32;
+    private static final int CUSTOMERS = 36;
+    private static final int LINES = 44;
+    private static final int DIRECTORY = 52;
+    private static final int HEADER_SIZE = 60;
+    /* The auditorium flags. */
+    private static final int BITMAP = 1;
+    private static final int TOGETHER = 2;
+    private static final int PRICED = 4;
+
+    /* The file holding the snapshot. */
+    private FileChannel channel;
+    /* The mapped contents of the file. */
+    private MappedByteBuffer map;
+    /* The auditoriums built so far, by directory index. */
+    private Auditorium[] auditoriums;
+    /* The customers present, once they have been read. */
+    private Customer[] customers;
+
+    /**
+     * Opens the snapshot in the file with the given name.
+     * Throws an IOException if the file is not a snapshot.
+     *
+     * @param fileName the name of the snapshot file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public TheaterSnapshot(String fileName) throws IOException {
+        channel = FileChannel.open(Paths.get(fileName),
+            StandardOpenOption.READ);
+        map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(fileName + " is not a theater snapshot.");
+        }
+        auditoriums = new Auditorium[map.getInt(NUM_AUDITORIUMS)];
+    }
+
+    /**
+     * Returns the generation the snapshot was written with.
+     *
+     * @return the generation of the snapshot.
+     */
+    public long getGeneration() {
+        return map.getLong(GENERATION);
+    }
+
+    /**
+     * Returns the price of one ticket.
+     *
+     * @return the ticket price.
+     */
+    public double getTicketPrice() {
+        return map.getDouble(PRICE);
+    }
+
+    /**
+     * Returns the index of the next customer line to be served.
+     *
+     * @return the index of the next line, or -1 if none was set.
+     */
+    public int getNextLine() {
+        return map.getInt(NEXT_LINE);
+    }
+
+    /**
+     * Returns the number of customer lines.
+     *
+     * @return the number of lines.
+     */
+    public int getNumberOfLines() {
+        return map.getInt(NUM_LINES);
+    }
+
+    /**
+     * Returns the customer lines, empty, in the order they were added.
+     *
+     * @return the lines.
+     */
+    public Line[] getLines() {
+        ByteBuffer in = at(map.getLong(LINES));
+        Line[] lines = new Line[getNumberOfLines()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new Line(getString(in), in.getDouble(), in.get() != 0);
+            skipCustomers(in);
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the customers present in the theater, in ascending order of
+     * their names. The same customers are returned every time.
+     *
+     * @return the customers present.
+     */
+    public synchronized Customer[] getCustomers() {
+        if (customers == null) {
+            ByteBuffer in = at(map.getLong(CUSTOMERS));
+            customers = new Customer[map.getInt(NUM_CUSTOMERS)];
+            for (int i = 0; i < customers.length; i++)
+                customers[i] = new Customer(getString(in), getString(in),
+                    in.getInt());
+        }
+        return customers;
+    }
+
+    /**
+     * Returns the customers waiting in the line at the given index, from the
+     * front of the line to the back. A waiting customer who is also present
+     * is the same object getCustomers() returns.
+     *
+     * @param lineIndex the index of the line.
+     * @return the customers in the line.
+     */
+    public Customer[] getCustomers(int lineIndex) {
+        ByteBuffer in = at(map.getLong(LINES));
+        for (int i = 0; i < lineIndex; i++) {
+            getString(in);
+            in.position(in.position() + 9);
+            skipCustomers(in);
+        }
+        getString(in);
+        in.position(in.position() + 9);
+        Customer[] waiting = new Customer[in.getInt()];
+        Customer[] present = getCustomers();
+        for (int i = 0; i < waiting.length; i++) {
+            waiting[i] = new Customer(getString(in), getString(in),
+                in.getInt());
+            if (in.get() != 0)
+                waiting[i] = present[find(present, waiting[i].getKey())];
+        }
+        return waiting;
+    }
+
+    /**
+     * Returns the number of auditoriums.
+     *
+     * @return the number of auditoriums.
+     */
+    public int getNumberOfMovies() {
+        return auditoriums.length;
+    }
+
+    /**
+     * Returns the movies of all auditoriums in ascending alphabetical order.
+     * No auditorium is built.
+     *
+     * @return the movies.
+     */
+    public String[] getMovies() {
+        String[] movies = new String[auditoriums.length];
+        for (int i = 0; i < movies.length; i++)
+            movies[i] = getString(at(blockOffset(i)));
+        return movies;
+    }
+
+    /**
+     * Returns the tickets sold for the given movie and the money taken in.
+     * No auditorium is built.
+     *
+     * @param movie the movie.
+     * @return the ticket sales of the movie.
+     */
+    public TicketSales getSales(String movie) {
+        ByteBuffer in = at(blockOffset(find(movie)));
+        getString(in);
+        in.position(in.position() + 9);
+        return new TicketSales(in.getLong(), in.getLong());
+    }
+
+    /**
+     * Returns the auditorium playing the given movie, building it from the
+     * snapshot the first time it is asked for.
+     * A TheaterException is thrown if no auditorium is playing the movie.
+     *
+     * @param movie the movie.
+     * @return the auditorium playing the movie.
+     */
+    public Auditorium getAuditorium(String movie) {
+        return getAuditorium(find(movie));
+    }
+
+    /**
+     * Returns the auditorium at the given index, building it from the
+     * snapshot the first time it is asked for. The auditoriums are in
+     * ascending alphabetical order of their movies.
+     *
+     * @param index the index of the auditorium.
+     * @return the auditorium at the given index.
+     */
+    public synchronized Auditorium getAuditorium(int index) {
+        if (auditoriums[index] == null)
+            auditoriums[index] = readAuditorium(at(blockOffset(index)), false);
+        return auditoriums[index];
+    }
+
+    /**
+     * Returns a new auditorium for the one at the given index, without
+     * reading its seats. Its movie, shape, ticket price, and ticket sales are
+     * read at once, while its parties and seats are only read from the
+     * snapshot the first time they are used. The auditorium stays usable
+     * after the snapshot is closed.
+     *
+     * @param index the index of the auditorium.
+     * @return the auditorium at the given index, its seats still unread.
+     */
+    public Auditorium openAuditorium(int index) {
+        return readAuditorium(at(blockOffset(index)), true);
+    }
+
+    /**
+     * Closes the snapshot file. Auditoriums already built or opened remain
+     * usable, since the mapping outlives the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Builds an auditorium from its block in the snapshot. If its seats are
+     * read later, the block is kept until the auditorium is first used.
+     *
+     * @param in the block of the auditorium.
+     * @param later if true, the parties and seats are read on first use.
+     * @return the auditorium.
+     */
+    private static Auditorium readAuditorium(ByteBuffer in, boolean later) {
+        String movie = getString(in);
+        int rows = in.getInt();
+        int seatsPerRow = in.getInt();
+        int flags = in.get();
+        TicketSales sold = new TicketSales(in.getLong(), in.getLong());
+        long ticketCents = ((flags & PRICED) != 0) ? in.getLong() : -1;
+        int capacity = rows * seatsPerRow;
+        SeatMapInterface seats = ((flags & BITMAP) != 0) ?
+            new BitmapSeatMap(capacity) : new ArraySeatMap(capacity);
+        Auditorium aud = new Auditorium(movie, rows, seatsPerRow, seats);
+        aud.setSeatingTogether((flags & TOGETHER) != 0);
+        aud.setTicketPrice(ticketCents / 100.0);
+        if (later)
+            aud.restoreSeatingLater(sold,
+                saved -> readSeating(in, saved, saved.getSales()));
+        else
+            readSeating(in, aud, sold);
+        return aud;
+    }
+
+    /**
+     * Seats the parties of an auditorium as they were saved.
+     *
+     * @param in the block of the auditorium, positioned at its parties.
+     * @param aud the auditorium, with no one seated.
+     * @param sold the ticket sales the auditorium is to be left with.
+     */
+    private static void readSeating(ByteBuffer in, Auditorium aud,
+            TicketSales sold) {
+        String[] names = new String[in.getInt()];
+        TicketSales[] paid = new TicketSales[names.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = getString(in);
+            paid[i] = new TicketSales(in.getLong(), in.getLong());
+        }
+        int[] owners = new int[aud.getSeatingCapacity()];
+        in.asIntBuffer().get(owners);
+        aud.restoreSeating(names, paid, owners, sold);
+    }
+
+    /**
+     * Returns the directory index of the auditorium playing the given movie.
+     * The directory is searched by halves.
+     *
+     * @param movie the movie.
+     * @return the index of the auditorium.
+     */
+    private int find(String movie) {
+        int low = 0;
+        int high = auditoriums.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = getString(at(blockOffset(middle)))
+                .compareTo(movie);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        throw new TheaterException("No auditorium is playing " + movie);
+    }
+
+    /**
+     * Returns the index of the customer with the given name, searching the
+     * given customers by halves.
+     *
+     * @param present the customers, in ascending order of their names.
+     * @param name the name of the customer.
+     * @return the index of the customer.
+     */
+    private static int find(Customer[] present, String name) {
+        int low = 0;
+        int high = present.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = present[middle].getKey().compareTo(name);
+            if (comparison < 0)
+                low = middle + 1;
+            else if (comparison > 0)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        throw new TheaterException("Customer " + name + " is not saved.");
+    }
+
+    /**
+     * Returns the offset of the block of the auditorium at the given index.
+     *
+     * @param index the directory index of the auditorium.
+     * @return the offset of the auditorium's block.
+     */
+    private long blockOffset(int index) {
+        return map.getLong((int) (map.getLong(DIRECTORY) + index * 8L));
+    }
+
+    /**
+     * Returns a view of the mapped file starting at the given offset.
+     *
+     * @param offset the offset in the file.
+     * @return a view of the file from the offset on.
+     */
+    private ByteBuffer at(long offset) {
+        ByteBuffer view = map.duplicate();
+        view.position((int) offset);
+        return view;
+    }
+
+    /**
+     * Skips the customers of a line.
+     *
+     * @param in the view positioned at the number of customers.
+     */
+    private static void skipCustomers(ByteBuffer in) {
+        for (int count = in.getInt(); count > 0; count--) {
+            getString(in);
+            getString(in);
+            in.position(in.position() + 5);
+        }
+    }
+
+    /**
+     * Reads a String written by putString().
+     *
+     * @param in the view positioned at the String.
+     * @return the String.
+     */
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * ************************************************************************
+     * Writing
+     * ************************************************************************
+     */
+
+    /**
+     * Writes a snapshot of the given theater to the file with the given name.
+     * The theater is only read, but nothing else may change it meanwhile.
+     *
+     * @param theater the theater to save.
+     * @param generation the generation of the snapshot.
+     * @param fileName the name of the snapshot file.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public static void write(Theater theater, long generation, String fileName)
+        throws IOException {
+        int numLines = theater.getNumberOfLines();
+        int numAuds = theater.getNumberOfMovies();
+        OrderedListInterface<Customer, String> present =
+            theater.getCustomers();
+        int numCustomers = present.size();
+
+        // Work out where every section goes.
+        long size = HEADER_SIZE;
+        long customersOffset = size;
+        for (int i = 0; i < numCustomers; i++)
+            size += customerSize(present.get(i));
+        long linesOffset = size;
+        for (int i = 0; i < numLines; i++) {
+            size += stringSize(theater.getLine(i).getName()) + 13;
+            for (Customer customer : theater.getLine(i))
+                size += customerSize(customer) + 1;
+        }
+        long directoryOffset = size;
+        size += numAuds * 8L;
+        long[] blocks = new long[numAuds];
+        for (int i = 0; i < numAuds; i++) {
+            blocks[i] = size;
+            Auditorium aud = theater.getAuditorium(i);
+            size += stringSize(aud.getKey()) + 29
+                + aud.getSeatingCapacity() * 4L;
+            if (aud.getTicketCents() >= 0)
+                size += 8;
+            for (int p = 0, numParties = aud.getNumberOfParties();
+                    p < numParties; p++)
+                size += stringSize(aud.getParty(p).getKey()) + 16;
+        }
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Snapshot too large.");
+
+        Path target = Paths.get(fileName);
+        Path temporary = Paths.get(fileName + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer map = out.map(FileChannel.MapMode.READ_WRITE,
+                0, size);
+            map.putInt(MAGIC).putLong(generation)
+                .putDouble(theater.getTicketPrice())
+                .putInt(theater.getNextLine()).putInt(numLines)
+                .putInt(numAuds).putInt(numCustomers)
+                .putLong(customersOffset).putLong(linesOffset)
+                .putLong(directoryOffset);
+            for (int i = 0; i < numCustomers; i++)
+                putCustomer(map, present.get(i));
+            for (int i = 0; i < numLines; i++) {
+                Line line = theater.getLine(i);
+                putString(map, line.getName());
+                map.putDouble(line.getWeight());
+                map.put((byte) (line.isExpress() ? 1 : 0));
+                map.putInt(line.size());
+                for (Customer customer : line) {
+                    putCustomer(map, customer);
+                    map.put((byte) (isPresent(present, customer) ? 1 : 0));
+                }
+            }
+            for (long block : blocks)
+                map.putLong(block);
+            for (int i = 0; i < numAuds; i++)
+                writeAuditorium(map, theater.getAuditorium(i));
+            map.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the block of an auditorium.
+     *
+     * @param out the mapped file, positioned at the block.
+     * @param aud the auditorium.
+     */
+    private static void writeAuditorium(ByteBuffer out, Auditorium aud) {
+        SeatMapInterface seats = aud.getSeatMap();
+        putString(out, aud.getKey());
+        out.putInt(aud.getSeatingCapacity() / aud.getSeatsPerRow());
+        out.putInt(aud.getSeatsPerRow());
+        out.put((byte) (((seats instanceof BitmapSeatMap) ? BITMAP : 0)
+            | (aud.isSeatingTogether() ? TOGETHER : 0)
+            | ((aud.getTicketCents() >= 0) ? PRICED : 0)));
+        TicketSales sold = aud.getSales();
+        out.putLong(sold.getTickets()).putLong(sold.getCents());
+        if (aud.getTicketCents() >= 0)
+            out.putLong(aud.getTicketCents());
+        int numParties = aud.getNumberOfParties();
+        out.putInt(numParties);
+        for (int p = 0; p < numParties; p++) {
+            Party party = aud.getParty(p);
+            putString(out, party.getKey());
+            out.putLong(party.getPaid().getTickets())
+                .putLong(party.getPaid().getCents());
+        }
+        // Every seat is free unless a party below says otherwise.
+        int seatsStart = out.position();
+        int capacity = aud.getSeatingCapacity();
+        for (int i = 0; i < capacity; i++)
+            out.putInt(0);
+        for (int p = 0; p < numParties; p++) {
+            Party party = aud.getParty(p);
+            for (int i = 0, numSeats = party.size(); i < numSeats; i++)
+                out.putInt(seatsStart + (party.getPosition(i) - 1) * 4, p + 1);
+        }
+    }
+
+    /**
+     * Returns true if the given customer is the one present in the theater
+     * under their name.
+     *
+     * @param present the customers present.
+     * @param customer the customer.
+     * @return true if the customer is present.
+     */
+    private static boolean isPresent(
+        OrderedListInterface<Customer, String> present, Customer customer) {
+        int index = present.indexOf(customer.getKey());
+        return index >= 0 && present.get(index) == customer;
+    }
+
+    /**
+     * Returns the number of bytes putCustomer() writes for the given
+     * customer.
+     *
+     * @param customer the customer.
+     * @return the number of bytes.
+     */
+    private static int customerSize(Customer customer) {
+        return stringSize(customer.getKey())
+            + stringSize(customer.getMovie()) + 4;
+    }
+
+    /**
+     * Writes a customer's name, movie and party size.
+     *
+     * @param out the destination.
+     * @param customer the customer.
+     */
+    private static void putCustomer(ByteBuffer out, Customer customer) {
+        putString(out, customer.getKey());
+        putString(out, customer.getMovie());
+        out.putInt(customer.getPartySize());
+    }
+
+    /**
+     * Returns the number of bytes putString() writes for the given String.
+     *
+     * @param value the String.
+     * @return the number of bytes.
+     */
+    private static int stringSize(String value) {
+        return 4 + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Writes a String as its length in bytes followed by its UTF-8 bytes.
+     *
+     * @param out the destination.
+     * @param value the String.
+     */
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+}
@@ -0,0 +1,408 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A deterministic load generator for the Theater.
+ * <p>
+ * The workload simulates an evening at a theater one tick at a time. Each
+ * tick, new customer parties arrive and enter the shortest line available to
+ * them, the cashiers serve a number of customers, and parties whose movie has
+ * ended leave the theater. The calls to enqueueCustomer, seatNextCustomer,
+ * and removeFromTheater are timed individually.
+ * <p>
+ * The following settings shape the workload:
+ * <p>  seed      - The seed for all random choices. Equal seeds and settings
+ *                always produce the same evening.
+ * <p>  customers - The total number of parties that arrive.
+ * <p>  rate      - The average number of parties arriving per tick.
+ * <p>  service   - The number of parties the cashiers serve per tick.
+ * <p>  stay      - The number of ticks a seated party stays before leaving.
+ * <p>  sizes     - The party-size distribution, as size:weight pairs such as
+ *                1:30,2:40,4:20,6:10.
+ * <p>  children  - The fraction of parties with a child, who may use the
+ *                express line.
+ * <p>  skew      - The movie popularity skew. Movie k is chosen with weight
+ *                1 / k^skew, so zero makes all movies equally popular.
+ * <p>  movies, rows, seats, lines - The shape of the theater.
+ * <p>
+ * From the command line, settings are given as name=value arguments, for
+ * example: java TheaterWorkload customers=1000000 skew=1.2
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TheaterWorkload {
+
+    /* The seed for all random choices. */
+    private long seed = 20170427L;
+    /* The total number of parties that arrive. */
+    private int customers = 100000;
+    /* The average number of parties arriving per tick. */
+    private double rate = 4.0;
+    /* The number of parties served per tick. */
+    private int service = 4;
+    /* The number of ticks a seated party stays. */
+    private int stay = 500;
+    /* The possible party sizes. */
+    private int[] partySizes = {1, 2, 3, 4, 5, 6};
+    /* The relative weight of each party size. */
+    private double[] partyWeights = {25, 35, 15, 15, 5, 5};
+    /* The fraction of parties with a child. */
+    private double children = 0.25;
+    /* The movie popularity skew. */
+    private double skew = 1.0;
+    /* The number of movies playing. */
+    private int movies = 8;
+    /* The number of rows in each auditorium. */
+    private int rows = 20;
+    /* The number of seats per row in each auditorium. */
+    private int seatsPerRow = 25;
+    /* The number of regular lines besides the express line. */
+    private int lines = 4;
+
+    /**
+     * Runs a workload from the command line and prints its report.
+     *
+     * @param args the settings, as name=value arguments.
+     */
+    public static void main(String[] args) {
+        TheaterWorkload workload = new TheaterWorkload();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0)
+                throw new IllegalArgumentException("Expected name=value: " + arg);
+            workload.set(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        System.out.println(workload.run());
+    }
+
+    /**
+     * Changes one of this workload's settings.
+     *
+     * @param name the name of the setting.
+     * @param value the new value of the setting.
+     */
+    public void set(String name, String value) {
+        switch (name) {
+            case "seed":     seed = Long.parseLong(value); break;
+            case "customers": customers = Integer.parseInt(value); break;
+            case "rate":     rate = Double.parseDouble(value); break;
+            case "service":  service = Integer.parseInt(value); break;
+            case "stay":     stay = Integer.parseInt(value); break;
+            case "sizes":    setPartySizes(value); break;
+            case "children": children = Double.parseDouble(value); break;
+            case "skew":     skew = Double.parseDouble(value); break;
+            case "movies":   movies = Integer.parseInt(value); break;
+            case "rows":     rows = Integer.parseInt(value); break;
+            case "seats":    seatsPerRow = Integer.parseInt(value); break;
+            case "lines":    lines = Integer.parseInt(value); break;
+            default:
+                throw new IllegalArgumentException("Unknown setting " + name);
+        }
+    }
+
+    /**
+     * Sets the party-size distribution from size:weight pairs separated by
+     * commas.
+     *
+     * @param distribution the party-size distribution.
+     */
+    private void setPartySizes(String distribution) {
+        String[] pairs = distribution.split(",");
+        partySizes = new int[pairs.length];
+        partyWeights = new double[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            String[] pair = pairs[i].split(":");
+            partySizes[i] = Integer.parseInt(pair[0]);
+            partyWeights[i] = (pair.length > 1) ?
+                Double.parseDouble(pair[1]) : 1.0;
+        }
+    }
+
+    /**
+     * Builds the theater the workload runs against.
+     * The theater has the configured number of movies and regular lines,
+     * plus an express line.
+     *
+     * @return the new theater.
+     */
+    public Theater createTheater() {
+        Theater theater = new Theater(10.00);
+        for (int m = 1; m <= movies; m++)
+            theater.addAuditorium(new Auditorium(movieTitle(m), rows,
+                seatsPerRow, new BitmapSeatMap(rows * seatsPerRow)));
+        theater.addLine("express", 0.5, true);
+        for (int l = 1; l <= lines; l++)
+            theater.addLine("line" + l);
+        theater.setNextLine(0);
+        return theater;
+    }
+
+    /**
+     * Runs the workload against a new theater.
+     *
+     * @return the report of the run.
+     */
+    public Report run() {
+        return run(createTheater());
+    }
+
+    /**
+     * Runs the workload against the given theater.
+     * The theater must be playing the movies and have the lines created by
+     * createTheater().
+     *
+     * @param theater the theater to run the workload against.
+     * @return the report of the run.
+     */
+    public Report run(Theater theater) {
+        Random random = new Random(seed);
+        double[] movieWeights = new double[movies];
+        for (int m = 0; m < movies; m++)
+            movieWeights[m] = 1.0 / Math.pow(m + 1, skew);
+        double[] movieChoices = cumulative(movieWeights);
+        double[] sizeChoices = cumulative(partyWeights);
+
+        Report report = new Report(customers);
+        // Seated parties leave in the order they were seated.
+        Queue<Customer> viewers = new Queue<Customer>();
+        Queue<Integer> endTicks = new Queue<Integer>();
+        long start = System.nanoTime();
+        int arrived = 0;
+        for (int tick = 0; arrived < customers || ! theater.allLinesEmpty();
+                tick++) {
+            // New parties arrive.
+            for (int n = poisson(random, rate); n > 0 && arrived < customers;
+                    n--, arrived++) {
+                String movie = movieTitle(1 + choose(random, movieChoices));
+                int partySize = partySizes[choose(random, sizeChoices)];
+                boolean hasChild = random.nextDouble() < children;
+                Customer customer = new Customer(
+                    "Party" + arrived, movie, partySize);
+                long before = System.nanoTime();
+                theater.enqueueCustomer(customer, hasChild);
+                report.enqueues.record(System.nanoTime() - before);
+            }
+            // Parties whose movie has ended leave.
+            while (! endTicks.isEmpty() && endTicks.peek() <= tick) {
+                endTicks.dequeue();
+                leave(theater, viewers.dequeue(), report);
+            }
+            // The cashiers serve customers.
+            for (int s = 0; s < service; s++) {
+                Customer next = theater.getNextCustomer();
+                if (next == null)
+                    break;
+                int partySize = next.getPartySize();
+                if (! theater.hasEnoughSeats(next.getMovie(), partySize)) {
+                    String movie = theater.findFirstAvailableMovie(partySize);
+                    if (movie.isEmpty()) {
+                        theater.removeFromLine();
+                        report.turnedAway++;
+                        continue;
+                    }
+                    next.setMovie(movie);
+                }
+                long before = System.nanoTime();
+                theater.seatNextCustomer();
+                report.seats.record(System.nanoTime() - before);
+                report.ticketsSold += partySize;
+                viewers.enqueue(next);
+                endTicks.enqueue(tick + stay);
+            }
+        }
+        // The last showings end.
+        while (! viewers.isEmpty())
+            leave(theater, viewers.dequeue(), report);
+        report.elapsed = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Removes a seated party from the theater and times the removal.
+     *
+     * @param theater the theater the party is leaving.
+     * @param viewer the party leaving.
+     * @param report the report to record the time in.
+     */
+    private static void leave(Theater theater, Customer viewer, Report report) {
+        long before = System.nanoTime();
+        theater.removeFromTheater(viewer.getKey());
+        report.departures.record(System.nanoTime() - before);
+    }
+
+    /**
+     * Returns the title of the movie with the given number.
+     *
+     * @param number the number of the movie, starting at 1.
+     * @return the movie title.
+     */
+    private static String movieTitle(int number) {
+        return "Movie" + number;
+    }
+
+    /**
+     * Returns the running totals of the given weights, scaled so the last
+     * total is one.
+     *
+     * @param weights the weights.
+     * @return the cumulative distribution of the weights.
+     */
+    private static double[] cumulative(double[] weights) {
+        double[] totals = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++)
+            totals[i] = total += weights[i];
+        for (int i = 0; i < totals.length; i++)
+            totals[i] /= total;
+        return totals;
+    }
+
+    /**
+     * Chooses an index at random from the given cumulative distribution.
+     *
+     * @param random the source of randomness.
+     * @param totals the cumulative distribution.
+     * @return the chosen index.
+     */
+    private static int choose(Random random, double[] totals) {
+        int index = Arrays.binarySearch(totals, random.nextDouble());
+        index = (index < 0) ? -index - 1 : index;
+        return Math.min(index, totals.length - 1);
+    }
+
+    /**
+     * Returns a Poisson-distributed number with the given mean.
+     *
+     * @param random the source of randomness.
+     * @param mean the mean of the distribution.
+     * @return the random number.
+     */
+    private static int poisson(Random random, double mean) {
+        double limit = Math.exp(-mean);
+        int count = 0;
+        for (double product = random.nextDouble(); product > limit; count++)
+            product *= random.nextDouble();
+        return count;
+    }
+
+    /**
+     * The results of a workload run.
+     */
+    public static class Report {
+
+        /* The latencies of enqueueCustomer calls. */
+        final Latencies enqueues;
+        /* The latencies of seatNextCustomer calls. */
+        final Latencies seats;
+        /* The latencies of removeFromTheater calls. */
+        final Latencies departures;
+        /* The number of parties that left because every movie was sold out. */
+        int turnedAway = 0;
+        /* The total number of tickets sold. */
+        long ticketsSold = 0;
+        /* The wall-clock time of the run in nanoseconds. */
+        long elapsed;
+
+        Report(int customers) {
+            enqueues = new Latencies("enqueueCustomer", customers);
+            seats = new Latencies("seatNextCustomer", customers);
+            departures = new Latencies("removeFromTheater", customers);
+        }
+
+        /**
+         * Returns the total number of timed operations.
+         *
+         * @return the number of timed operations.
+         */
+        public long getOperations() {
+            return enqueues.count + seats.count + departures.count;
+        }
+
+        /**
+         * Returns the number of timed operations per second of the run.
+         *
+         * @return the operations per second.
+         */
+        public double getOperationsPerSecond() {
+            return getOperations() / (elapsed / 1e9);
+        }
+
+        /**
+         * Returns the report as a table of latency percentiles followed by
+         * the totals of the run.
+         *
+         * @return the String representation of the report.
+         */
+        @Override
+        public String toString() {
+            String report = String.format("%-18s %10s %8s %8s %8s %10s%n",
+                "Operation (ns)", "Count", "p50", "p90", "p99", "Max");
+            report += enqueues + "\n" + seats + "\n" + departures + "\n";
+            report += String.format(
+                "%d operations in %.3f s (%.0f ops/s), "
+                + "%d tickets sold, %d parties turned away",
+                getOperations(), elapsed / 1e9, getOperationsPerSecond(),
+                ticketsSold, turnedAway);
+            return report;
+        }
+    }
+
+    /**
+     * A record of the latencies of one kind of operation.
+     */
+    static class Latencies {
+
+        /* The name of the operation. */
+        private final String name;
+        /* The recorded latencies in nanoseconds. */
+        private long[] times;
+        /* The number of recorded latencies. */
+        int count = 0;
+
+        Latencies(String name, int expected) {
+            this.name = name;
+            times = new long[Math.max(16, expected)];
+        }
+
+        /**
+         * Records the latency of one operation.
+         * Several threads may record latencies at once.
+         *
+         * @param time the latency in nanoseconds.
+         */
+        synchronized void record(long time) {
+            if (count == times.length)
+                times = Arrays.copyOf(times, count * 2);
+            times[count++] = time;
+        }
+
+        /**
+         * Returns the latencies as a row of percentiles.
+         *
+         * @return the String representation of the latencies.
+         */
+        @Override
+        public String toString() {
+            long[] sorted = Arrays.copyOf(times, count);
+            Arrays.sort(sorted);
+            return String.format("%-18s %10d %8d %8d %8d %10d", name, count,
+                percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        /**
+         * Returns the given percentile of the sorted latencies.
+         *
+         * @param sorted the latencies in ascending order.
+         * @param fraction the percentile as a fraction between zero and one.
+         * @return the latency at the percentile, or zero if there are none.
+         */
+        private static long percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0)
+                return 0;
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * The TicketSales class is a snapshot of the number of tickets sold and the
+ * money taken in for them.
+ * <p>
+ * Money is counted in whole cents, so totals never drift the way sums of
+ * doubles do. A TicketSales is immutable; adding a sale returns a new
+ * snapshot. This lets a snapshot be handed to another thread, such as one
+ * that monitors sales, without any locking.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public final class TicketSales {
+
+    /* The snapshot of no sales at all. */
+    public static final TicketSales NONE = new TicketSales(0, 0);
+
+    /* The number of tickets sold. */
+    private final long tickets;
+    /* The money taken in for the tickets, in cents. */
+    private final long cents;
+
+    /**
+     * Constructs a snapshot of the given sales.
+     *
+     * @param tickets the number of tickets sold.
+     * @param cents the money taken in for the tickets, in cents.
+     */
+    public TicketSales(long tickets, long cents) {
+        this.tickets = tickets;
+        this.cents = cents;
+    }
+
+    /**
+     * Returns the number of cents in the given amount of money.
+     * The amount is rounded to the nearest cent.
+     *
+     * @param amount the amount of money, such as a ticket price.
+     * @return the amount in cents.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Returns the number of tickets sold.
+     *
+     * @return the number of tickets sold.
+     */
+    public long getTickets() {
+        return tickets;
+    }
+
+    /**
+     * Returns the money taken in, in cents.
+     *
+     * @return the money taken in, in cents.
+     */
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Returns the money taken in, in dollars.
+     *
+     * @return the money taken in, in dollars.
+     */
+    public double getAmount() {
+        return cents / 100.0;
+    }
+
+    /**
+     * Returns the sales of this snapshot plus the given sales.
+     * Refunds are added as negative numbers.
+     *
+     * @param moreTickets the number of tickets sold.
+     * @param moreCents the money taken in for the tickets, in cents.
+     * @return the new snapshot.
+     */
+    public TicketSales add(long moreTickets, long moreCents) {
+        return new TicketSales(tickets + moreTickets, cents + moreCents);
+    }
+
+    /**
+     * Returns the sales of this snapshot plus the given sales.
+     *
+     * @param sales the sales to add.
+     * @return the new snapshot.
+     */
+    public TicketSales add(TicketSales sales) {
+        return add(sales.tickets, sales.cents);
+    }
+
+    /**
+     * Returns the sales of this snapshot minus the given sales.
+     *
+     * @param sales the sales to subtract.
+     * @return the new snapshot.
+     */
+    public TicketSales subtract(TicketSales sales) {
+        return add(-sales.tickets, -sales.cents);
+    }
+
+    /**
+     * Returns the String representation of these sales.
+     *
+     * @return the number of tickets and the money taken in.
+     */
+    @Override
+    public String toString() {
+        // The sign is given on its own, since cents / 100 is zero, not
+        // negative, for amounts between -99 and -1 cents.
+        long amount = Math.abs(cents);
+        return tickets + " tickets, " + ((cents < 0) ? "-$" : "$")
+            + String.format("%d.%02d", amount / 100, amount % 100);
+    }
+}
@@ -0,0 +1,545 @@
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A sorted list with all of its elements in ascending order, backed by a
+ * balanced binary search tree.
+ * <p>
+ * The items are held in an AVL tree ordered by their search keys. Every node
+ * also records the number of items beneath it, so items can be found by
+ * index as well as by search key. Adding, removing, and retrieving an item
+ * take logarithmic time whether it is done by index or by search key, and
+ * no operation ever moves the other items.
+ * <p>
+ * Items with equal search keys are allowed. A newly added item is placed
+ * before any items with an equal search key, the same as in an
+ * AscendinglyOrderedList.
+ * <p>
+ * Iterators walk the tree in order, keeping the path to the current node on
+ * a stack. Spliterators split by index, so each half starts its walk with a
+ * single descent from the root. Both are fail-fast.
+ *
+ * @author agent
+ * @version 2026.10.17
+ *
+ * @param <T> the type of items held in this collection
+ * @param <KT> the type of each item's search key
+ */
+public class TreeOrderedList<T extends KeyedItem<KT>,
+KT extends Comparable<? super KT>> implements OrderedListInterface<T, KT> {
+
+    /* The root of the tree, or null if this list is empty. */
+    private Node<T> root = null;
+    /* The number of times this list has been structurally changed. */
+    private int modCount = 0;
+
+    /**
+     * Constructs an empty Tree Ordered List.
+     */
+    public TreeOrderedList() {
+    }
+
+    /**
+     * Returns true if this list contains no items.
+     *
+     * @return true if this list contains no items.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the total number of items in this list.
+     *
+     * @return the total number of items.
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the index of the first item with a search key that matches the
+     * specified search key. If no item matching the search key is found,
+     * the index where the item would go is returned in an encoded manner.
+     * To decode the index of failed search, multiply it by -1 and add 1.
+     *
+     * @param searchKey the search key to search for
+     * @return index of the found item or encoded index of where the item would go
+     */
+    public int indexOf(KT searchKey) {
+        int index = 0;
+        boolean found = false;
+        for (Node<T> node = root; node != null;) {
+            int comparison = node.item.getKey().compareTo(searchKey);
+            if (comparison < 0) {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+            else {
+                found = found || comparison == 0;
+                node = node.left;
+            }
+        }
+        return found ? index : (index + 1) * -1;
+    }
+
+    /**
+     * Returns true if an item with a search key matching the specified search
+     * key is in this list.
+     *
+     * @param searchKey the search key to search for
+     * @return true if the item searched for is in this list
+     */
+    public boolean contains(KT searchKey) {
+        return indexOf(searchKey) >= 0;
+    }
+
+    /**
+     * Returns the item at the specified position in this list.
+     *
+     * @param index index of the item to return
+     * @return the item at the specified position in this list.
+     */
+    public T get(int index) {
+        if (index >= 0 && index < size())
+            return nodeAt(root, index).item;
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List index " + index + " out of bounds on get.");
+    }
+
+    /**
+     * Returns the item with a search key equal to the specified one.
+     *
+     * @param searchKey the search key to search for
+     * @return the item matching the specified search key
+     */
+    public T get(KT searchKey) {
+        int index = indexOf(searchKey);
+        if (index >= 0)
+            return nodeAt(root, index).item;
+        else
+            throw new ListException("Item not found in list.");
+    }
+
+    /**
+     * Inserts the specified item into the proper position in the list.
+     * After this call, the new item will be in the list with the list retaining
+     * its sorted fashion.
+     *
+     * @param newItem item to be inserted
+     */
+    public void add(T newItem) {
+        root = insert(root, newItem);
+        modCount++;
+    }
+
+    /**
+     * Returns and removes the item at the specified index.
+     *
+     * @param index the index of the item to be removed
+     * @return the removed item
+     */
+    public T remove(int index) {
+        if (index >= 0 && index < size()) {
+            T item = nodeAt(root, index).item;
+            root = delete(root, index);
+            modCount++;
+            return item;
+        }
+        else
+            throw new ListIndexOutOfBoundsException(
+                "List index " + index + " out of bounds on remove.");
+    }
+
+    /**
+     * Returns and removes the item with the search key matching the specified
+     * one. If the item is not found, a ListException is thrown.
+     *
+     * @param searchKey the search key to search for
+     * @return the removed item
+     */
+    public T remove(KT searchKey) {
+        int target = indexOf(searchKey);
+        if (target >= 0)
+            return remove(target);
+        else
+            throw new ListException("Item not found in list.");
+    }
+
+    /**
+     * Removes all items in this list.
+     * After this call, the list will be empty.
+     */
+    public void removeAll() {
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the items of this list, in order.
+     * The iterator cannot remove items.
+     *
+     * @return a fail-fast iterator over this list.
+     */
+    public Iterator<T> iterator() {
+        return new Itr(0, size());
+    }
+
+    /**
+     * Returns a spliterator over the items of this list, in order.
+     * It knows its exact size and splits in halves by index.
+     *
+     * @return a fail-fast spliterator over this list.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new Splitr(0, -1, 0);
+    }
+
+    /**
+     * Returns a String representation of this list.
+     *
+     * @return a String representation of this list
+     */
+    @Override
+    public String toString() {
+        StringBuilder listString = new StringBuilder();
+        appendItems(root, listString);
+        return listString.toString();
+    }
+
+    /*
+     * ************************************************************************
+     * Tree Helper Methods
+     * ************************************************************************
+     */
+
+    /**
+     * Appends the String representation of every item beneath the given node,
+     * in order, to the given builder.
+     *
+     * @param node the root of the subtree.
+     * @param listString the builder to append to.
+     */
+    private void appendItems(Node<T> node, StringBuilder listString) {
+        if (node != null) {
+            appendItems(node.left, listString);
+            listString.append(node.item.toString()).append('\n');
+            appendItems(node.right, listString);
+        }
+    }
+
+    /**
+     * Returns the node at the given index of the subtree rooted at the given
+     * node. The index must be within the subtree.
+     *
+     * @param node the root of the subtree.
+     * @param index the index of the node within the subtree.
+     * @return the node at the given index.
+     */
+    private Node<T> nodeAt(Node<T> node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize)
+                node = node.left;
+            else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+            else
+                return node;
+        }
+    }
+
+    /**
+     * Inserts the given item into the subtree rooted at the given node.
+     *
+     * @param node the root of the subtree.
+     * @param newItem the item to insert.
+     * @return the new root of the subtree.
+     */
+    private Node<T> insert(Node<T> node, T newItem) {
+        if (node == null)
+            return new Node<T>(newItem);
+        if (newItem.getKey().compareTo(node.item.getKey()) <= 0)
+            node.left = insert(node.left, newItem);
+        else
+            node.right = insert(node.right, newItem);
+        return balance(node);
+    }
+
+    /**
+     * Deletes the node at the given index of the subtree rooted at the given
+     * node. The index must be within the subtree.
+     *
+     * @param node the root of the subtree.
+     * @param index the index of the node to delete within the subtree.
+     * @return the new root of the subtree.
+     */
+    private Node<T> delete(Node<T> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize)
+            node.left = delete(node.left, index);
+        else if (index > leftSize)
+            node.right = delete(node.right, index - leftSize - 1);
+        else if (node.left == null)
+            return node.right;
+        else if (node.right == null)
+            return node.left;
+        else {
+            // Replace this node's item with its successor's.
+            node.item = nodeAt(node.right, 0).item;
+            node.right = delete(node.right, 0);
+        }
+        return balance(node);
+    }
+
+    /**
+     * Restores the balance of the given node after one of its subtrees has
+     * changed height by at most one.
+     *
+     * @param node the node to balance.
+     * @return the new root of the subtree.
+     */
+    private Node<T> balance(Node<T> node) {
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            if (height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            node = rotateRight(node);
+        }
+        else if (difference < -1) {
+            if (height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            node = rotateLeft(node);
+        }
+        else
+            update(node);
+        return node;
+    }
+
+    /**
+     * Rotates the given node's left child into its place.
+     *
+     * @param node the node to rotate.
+     * @return the new root of the subtree.
+     */
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates the given node's right child into its place.
+     *
+     * @param node the node to rotate.
+     * @return the new root of the subtree.
+     */
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recomputes the height and size of the given node from its children.
+     *
+     * @param node the node to update.
+     */
+    private void update(Node<T> node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Returns the height of the given subtree.
+     *
+     * @param node the root of the subtree, or null.
+     * @return the height of the subtree, or zero if it is empty.
+     */
+    private static int height(Node<?> node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * Returns the number of items in the given subtree.
+     *
+     * @param node the root of the subtree, or null.
+     * @return the number of items in the subtree.
+     */
+    private static int size(Node<?> node) {
+        return (node == null) ? 0 : node.size;
+    }
+
+    /**
+     * A node of the tree.
+     *
+     * @param <T> the type of the item held by the node
+     */
+    private static class Node<T> {
+
+        /* The item held by this node. */
+        T item;
+        /* The subtree of items ordered before this node's item. */
+        Node<T> left = null;
+        /* The subtree of items ordered after this node's item. */
+        Node<T> right = null;
+        /* The height of the subtree rooted at this node. */
+        int height = 1;
+        /* The number of items in the subtree rooted at this node. */
+        int size = 1;
+
+        /**
+         * Constructs a leaf node holding the given item.
+         *
+         * @param item the item held by the node.
+         */
+        Node(T item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * An in-order iterator over the items between two indexes.
+     */
+    private class Itr implements Iterator<T> {
+
+        /* The nodes whose items are still to come, nearest on top. */
+        private final ArrayDeque<Node<T>> path = new ArrayDeque<>();
+        /* The number of items still to return. */
+        private int remaining;
+        /* The modification count this iterator expects. */
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator from the first index, inclusive, to the
+         * second index, exclusive.
+         *
+         * @param from the index of the first item.
+         * @param to the index after the last item.
+         */
+        Itr(int from, int to) {
+            remaining = to - from;
+            // Descend to the first item, keeping the nodes still to come.
+            Node<T> node = (remaining > 0) ? root : null;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (from < leftSize) {
+                    path.push(node);
+                    node = node.left;
+                }
+                else if (from == leftSize) {
+                    path.push(node);
+                    node = null;
+                }
+                else {
+                    from -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining <= 0)
+                throw new NoSuchElementException();
+            Node<T> node = path.pop();
+            for (Node<T> next = node.right; next != null; next = next.left)
+                path.push(next);
+            remaining--;
+            return node.item;
+        }
+    }
+
+    /**
+     * A spliterator over a range of the items of this list.
+     * The range is bound to the list's size when it is first used.
+     */
+    private class Splitr implements Spliterator<T> {
+
+        /* The index of the next item to return. */
+        private int index;
+        /* The index after the last item, or -1 until first used. */
+        private int fence;
+        /* The modification count this spliterator expects. */
+        private int expectedModCount;
+        /* The walk over the range, once started. */
+        private Itr walk = null;
+
+        Splitr(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size();
+            }
+            return fence;
+        }
+
+        private Itr walk() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (walk == null)
+                walk = new Itr(index, getFence());
+            return walk;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int middle = (index + high) >>> 1;
+            if (walk != null || index >= middle)
+                return null;
+            Spliterator<T> prefix = new Splitr(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= getFence())
+                return false;
+            T item = walk().next();
+            index++;
+            action.accept(item);
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            int high = getFence();
+            if (index >= high)
+                return;
+            Itr items = walk();
+            for (; index < high; index++)
+                action.accept(items.next());
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED
+                | Spliterator.SUBSIZED;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.Random;
+
+/**
+ * A check of the BitmapSeatMap against a plain array of occupants.
+ * <p>
+ * Seat maps of capacities on both sides of multiples of 64, and a few that
+ * are not near one, are changed at random along with an array holding the
+ * occupant of each seat:
+ * <p>  - Runs of seats are occupied and freed, many of them chosen to start
+ *        or end at the last seat of one word or the first seat of the next.
+ * <p>  - After every change, every occupant is compared, and nextFree and
+ *        nextOccupied are compared from every position, including 0 and one
+ *        past the capacity, so searches that skip whole words and searches
+ *        that run into the unused bits of the last word are both covered.
+ * <p>
+ * Then auditoriums whose rows run across words are filled and emptied by
+ * parties, once with a BitmapSeatMap and once with an ArraySeatMap, with
+ * and without seating parties together. Every party must get the same seats
+ * from both, so the search for a block of free seats agrees across words.
+ * <p>
+ * Usage: java BitmapSeatMapCheck [changes per map]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class BitmapSeatMapCheck {
+
+    /* The capacities of the seat maps checked. */
+    private static final int[] CAPACITIES =
+        {1, 2, 63, 64, 65, 100, 127, 128, 129, 191, 192, 193, 200, 500};
+
+    /* The number of failed checks. */
+    private static int failures = 0;
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of changes made to each seat map.
+     */
+    public static void main(String[] args) {
+        int changes = (args.length > 0) ? Integer.parseInt(args[0]) : 3000;
+        Random random = new Random(1);
+        for (int capacity : CAPACITIES)
+            checkMap(capacity, changes, random);
+        // An auditorium may never finish seating a party if the searches
+        // are wrong, so auditoriums are only tried once the maps pass.
+        int parties = 0;
+        for (boolean together : new boolean[] {false, true}) {
+            if (failures > 0)
+                break;
+            parties += checkAuditorium(3, 70, together, random);
+            parties += checkAuditorium(5, 64, together, random);
+            parties += checkAuditorium(4, 33, together, random);
+        }
+        System.out.printf("%d seat maps, %d changes each, %d parties seated, "
+            + "%d failures: %s%n", CAPACITIES.length, changes, parties,
+            failures, (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Makes random changes to a seat map and to an array of occupants, and
+     * compares them after every change.
+     *
+     * @param capacity the number of seats.
+     * @param changes the number of changes.
+     * @param random the source of the changes.
+     */
+    private static void checkMap(int capacity, int changes, Random random) {
+        BitmapSeatMap seats = new BitmapSeatMap(capacity);
+        // The occupant of each seat, by position; index 0 is unused.
+        String[] occupants = new String[capacity + 1];
+        for (int change = 0; change < changes && failures == 0; change++) {
+            int first = pickPosition(capacity, random);
+            int count = 1 + random.nextInt(Math.min(capacity, 130));
+            count = Math.min(count, capacity - first + 1);
+            String name = "p" + change;
+            int choice = random.nextInt(10);
+            if (choice < 5) {
+                // Occupy the free seats of the run, a free stretch at a time.
+                for (int position = first; position < first + count;) {
+                    if (occupants[position] != null) {
+                        position++;
+                        continue;
+                    }
+                    int end = position;
+                    while (end < first + count && occupants[end] == null)
+                        occupants[end++] = name;
+                    seats.occupy(position, end - position, name);
+                    position = end;
+                }
+            }
+            else if (choice < 8) {
+                seats.vacate(first, count);
+                for (int position = first; position < first + count; position++)
+                    occupants[position] = null;
+            }
+            else if (choice < 9) {
+                String vacated = seats.vacate(first);
+                if (! same(vacated, occupants[first]))
+                    fail("vacate(" + first + ") of " + capacity + " seats gave "
+                        + vacated + " instead of " + occupants[first]);
+                occupants[first] = null;
+            }
+            else if (random.nextInt(20) == 0) {
+                seats.clear();
+                for (int position = 1; position <= capacity; position++)
+                    occupants[position] = null;
+            }
+            compare(seats, occupants, "change " + change);
+        }
+    }
+
+    /**
+     * Returns a random seat position, half of the time one next to the
+     * boundary between two words of the bitmap.
+     *
+     * @param capacity the number of seats.
+     * @param random the source of the position.
+     * @return the position, from 1 to the capacity.
+     */
+    private static int pickPosition(int capacity, Random random) {
+        int position;
+        if (random.nextBoolean()) {
+            int boundary = 64 * random.nextInt(capacity / 64 + 1);
+            position = boundary + random.nextInt(4) - 1;
+        }
+        else
+            position = 1 + random.nextInt(capacity);
+        return Math.max(1, Math.min(position, capacity));
+    }
+
+    /**
+     * Compares a seat map to an array of occupants.
+     *
+     * @param seats the seat map.
+     * @param occupants the occupant of each seat, by position.
+     * @param when a description of the last change.
+     */
+    private static void compare(BitmapSeatMap seats, String[] occupants,
+            String when) {
+        int capacity = occupants.length - 1;
+        int occupied = 0;
+        for (int position = 1; position <= capacity; position++) {
+            if (occupants[position] != null)
+                occupied++;
+            if (! same(seats.getOccupant(position), occupants[position])) {
+                fail("seat " + position + " of " + capacity + " holds "
+                    + seats.getOccupant(position) + " instead of "
+                    + occupants[position] + " after " + when);
+                return;
+            }
+        }
+        if (seats.size() != occupied || seats.isEmpty() != (occupied == 0))
+            fail(capacity + " seats report " + seats.size() + " occupied "
+                + "instead of " + occupied + " after " + when);
+        // Search from every position, scanning backwards so the expected
+        // answers can be carried along.
+        int nextFree = capacity + 1;
+        int nextOccupied = capacity + 1;
+        for (int position = capacity + 1; position >= 0; position--) {
+            if (position >= 1 && position <= capacity) {
+                if (occupants[position] == null)
+                    nextFree = position;
+                else
+                    nextOccupied = position;
+            }
+            if (seats.nextFree(position) != nextFree
+                    || seats.nextOccupied(position) != nextOccupied) {
+                fail("search from " + position + " of " + capacity
+                    + " found free " + seats.nextFree(position) + " and "
+                    + "occupied " + seats.nextOccupied(position) + " instead of "
+                    + nextFree + " and " + nextOccupied + " after " + when);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Seats and removes the same parties in an auditorium with a
+     * BitmapSeatMap and one with an ArraySeatMap, and compares where every
+     * party was seated.
+     *
+     * @param rows the number of rows.
+     * @param seatsPerRow the number of seats in each row.
+     * @param together whether parties are seated together when they fit.
+     * @param random the source of the parties.
+     * @return the number of parties seated.
+     */
+    private static int checkAuditorium(int rows, int seatsPerRow,
+            boolean together, Random random) {
+        int capacity = rows * seatsPerRow;
+        Auditorium bitmap = new Auditorium("Check", rows, seatsPerRow,
+            new BitmapSeatMap(capacity));
+        Auditorium array = new Auditorium("Check", rows, seatsPerRow,
+            new ArraySeatMap(capacity));
+        bitmap.setSeatingTogether(together);
+        array.setSeatingTogether(together);
+        int[] sizes = new int[400];
+        int seated = 0;
+        for (int party = 0; party < sizes.length && failures == 0; party++) {
+            int size = 1 + random.nextInt(seatsPerRow + 10);
+            if (size <= array.getRemainingSeats()) {
+                bitmap.addParty("p" + party, size, 500);
+                array.addParty("p" + party, size, 500);
+                sizes[party] = size;
+                seated++;
+            }
+            // Let an earlier party leave, to open holes across the words.
+            int leaving = random.nextInt(party + 1);
+            if (sizes[leaving] > 0 && random.nextInt(3) == 0) {
+                bitmap.removeParty("p" + leaving, sizes[leaving]);
+                array.removeParty("p" + leaving, sizes[leaving]);
+                sizes[leaving] = 0;
+            }
+            if (! bitmap.generateSeatingChart().equals(
+                    array.generateSeatingChart()))
+                fail("parties seated differently in " + rows + " rows of "
+                    + seatsPerRow + (together ? " together" : "")
+                    + " after party " + party);
+        }
+        return seated;
+    }
+
+    /**
+     * Returns true if the two names are both null or equal.
+     *
+     * @param first the first name.
+     * @param second the second name.
+     * @return true if the names are the same.
+     */
+    private static boolean same(String first, String second) {
+        return (first == null) ? second == null : first.equals(second);
+    }
+
+    /**
+     * Records a failed check.
+     *
+     * @param message what went wrong.
+     */
+    private static void fail(String message) {
+        if (failures++ < 10)
+            System.out.println(message);
+    }
+}
@@ -0,0 +1,293 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A stress check for the ConcurrentTheater.
+ * <p>
+ * Several box-office terminals run at once against a single theater with
+ * small auditoriums. Each terminal enqueues customers and serves whoever is
+ * next, so enqueues, sales, and departures for every movie contend with each
+ * other. Once every terminal has finished, the seating of every auditorium is
+ * checked against the parties that were sold tickets:
+ * <p>  - No auditorium holds more viewers than it has seats.
+ * <p>  - Every seated party, and no other, holds exactly as many seats as its
+ *        party size, so no seat was sold twice.
+ * <p>  - Every auditorium's ticket count matches the tickets sold for it.
+ * <p>
+ * A second run has every terminal refund each customer it serves, and every
+ * other turn also the customer most recently enqueued by another terminal,
+ * who may be waiting in line, being seated, or already seated. Afterwards,
+ * every seated party must still be in the theater and every auditorium must
+ * have sold exactly as many tickets as it has viewers, so no refunded party
+ * was left in its seats.
+ * <p>
+ * Usage: java ConcurrentTheaterStress [terminals] [customers per terminal]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class ConcurrentTheaterStress {
+
+    /* The movies playing during the stress check. */
+    private static final String[] MOVIES = {"Life", "Logan", "Kong", "Get Out"};
+
+    /**
+     * Runs the stress check.
+     *
+     * @param args optional number of terminals and customers per terminal.
+     * @throws InterruptedException if interrupted while waiting on terminals.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int terminals = (args.length > 0) ? Integer.parseInt(args[0]) : 8;
+        int perTerminal = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+
+        ConcurrentTheater theater = new ConcurrentTheater(10.00);
+        for (String movie : MOVIES)
+            theater.addAuditorium(new Auditorium(movie, 10, 20,
+                new BitmapSeatMap(200)));
+        theater.addLine("express", 0.5, true);
+        theater.addLine("first");
+        theater.addLine("second");
+        theater.setNextLine(0);
+
+        // The parties currently seated, and the tickets sold per movie.
+        Map<String, Customer> seated = new ConcurrentHashMap<String, Customer>();
+        Map<String, AtomicInteger> sold = new HashMap<String, AtomicInteger>();
+        for (String movie : MOVIES)
+            sold.put(movie, new AtomicInteger());
+        AtomicInteger soldOut = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[terminals];
+        for (int t = 0; t < terminals; t++) {
+            int terminal = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(terminal);
+                String[] mine = new String[perTerminal];
+                int departed = 0;
+                try {
+                    start.await();
+                }
+                catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < perTerminal; i++) {
+                    String name = "T" + terminal + "-" + i;
+                    theater.enqueueCustomer(new Customer(name,
+                        MOVIES[random.nextInt(MOVIES.length)],
+                        1 + random.nextInt(6)), random.nextBoolean());
+                    Customer next = theater.getNextCustomer();
+                    if (next != null) {
+                        try {
+                            Customer customer = theater.seatNextCustomer();
+                            seated.put(customer.getKey(), customer);
+                            sold.get(customer.getMovie())
+                                .addAndGet(customer.getPartySize());
+                        }
+                        catch (TheaterException ex) {
+                            // Sold out, or another terminal served the line.
+                            soldOut.incrementAndGet();
+                        }
+                    }
+                    mine[i] = name;
+                    // Parties entered by this terminal leave in order.
+                    if (random.nextInt(3) > 0)
+                        for (; departed < i; departed++) {
+                            Customer customer = seated.remove(mine[departed]);
+                            if (customer != null)
+                                theater.removeFromTheater(customer.getKey());
+                        }
+                }
+            });
+            threads[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        long elapsed = System.nanoTime() - begin;
+
+        boolean passed = true;
+        for (String movie : MOVIES) {
+            // Count the seats held by each party in the seating chart.
+            Map<String, Integer> held = new HashMap<String, Integer>();
+            int viewers = 0;
+            for (String line : theater.getSeatingChart(movie).split("\n")) {
+                int by = line.indexOf(" used by ");
+                if (by >= 0) {
+                    String party = line.substring(by + 9, line.length() - 9);
+                    held.merge(party, 1, Integer::sum);
+                    viewers++;
+                }
+            }
+            for (Map.Entry<String, Integer> entry : held.entrySet()) {
+                Customer customer = seated.get(entry.getKey());
+                if (customer == null || ! customer.getMovie().equals(movie)
+                        || customer.getPartySize() != entry.getValue()) {
+                    System.out.println("Seats double-booked or lost in "
+                        + movie + " for " + entry.getKey());
+                    passed = false;
+                }
+            }
+            int parties = 0;
+            for (Customer customer : seated.values())
+                if (customer.getMovie().equals(movie))
+                    parties++;
+            if (parties != held.size()) {
+                System.out.println(movie + " lost track of "
+                    + (parties - held.size()) + " seated parties");
+                passed = false;
+            }
+            if (viewers > 200) {
+                System.out.println(movie + " is oversold: " + viewers);
+                passed = false;
+            }
+            if (theater.getNumberOfTicketsSold(movie) != sold.get(movie).get()) {
+                System.out.println(movie + " ticket count is off: "
+                    + theater.getNumberOfTicketsSold(movie) + " recorded, "
+                    + sold.get(movie).get() + " sold");
+                passed = false;
+            }
+        }
+        System.out.printf("%d terminals, %d customers, %d turned away, "
+            + "%.3f s: %s%n", terminals, terminals * perTerminal,
+            soldOut.get(), elapsed / 1e9, passed ? "PASSED" : "FAILED");
+        boolean refundsPassed = checkRefunds(terminals, perTerminal);
+        if (! passed || ! refundsPassed)
+            System.exit(1);
+    }
+
+    /**
+     * Refunds the customer of the given name, if they are still in the
+     * theater and have been seated.
+     *
+     * @param theater the theater.
+     * @param name the name of the customer, or null for none.
+     * @param refunded the count of refunded customers.
+     */
+    private static void refund(ConcurrentTheater theater, String name,
+            AtomicInteger refunded) {
+        if (name != null)
+            try {
+                theater.refundCustomer(name);
+                refunded.incrementAndGet();
+            }
+            catch (TheaterException ex) {
+                // Already gone, or still waiting in line.
+            }
+    }
+
+    /**
+     * Runs terminals that seat customers while refunding the customers of
+     * other terminals, then checks that no refunded party is still seated.
+     *
+     * @param terminals the number of terminals.
+     * @param perTerminal the number of customers each terminal enqueues.
+     * @return true if the check passed.
+     * @throws InterruptedException if interrupted while waiting on terminals.
+     */
+    private static boolean checkRefunds(int terminals, int perTerminal)
+            throws InterruptedException {
+        ConcurrentTheater theater = new ConcurrentTheater(10.00);
+        for (String movie : MOVIES)
+            theater.addAuditorium(new Auditorium(movie, 10, 20,
+                new BitmapSeatMap(200)));
+        theater.addLine("first");
+        theater.addLine("second");
+        theater.setNextLine(0);
+
+        Map<String, Customer> entered =
+            new ConcurrentHashMap<String, Customer>();
+        AtomicReferenceArray<String> recent =
+            new AtomicReferenceArray<String>(terminals);
+        AtomicInteger refunded = new AtomicInteger();
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[terminals];
+        for (int t = 0; t < terminals; t++) {
+            int terminal = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(terminal);
+                try {
+                    start.await();
+                }
+                catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < perTerminal; i++) {
+                    String name = "R" + terminal + "-" + i;
+                    Customer customer = new Customer(name,
+                        MOVIES[random.nextInt(MOVIES.length)],
+                        1 + random.nextInt(6));
+                    entered.put(name, customer);
+                    theater.enqueueCustomer(customer, false);
+                    recent.set(terminal, name);
+                    String served = null;
+                    try {
+                        served = theater.seatNextCustomer().getKey();
+                    }
+                    catch (TheaterException ex) {
+                        // Sold out, or another terminal served the line.
+                    }
+                    // Refund another terminal's newest customer half of
+                    // the time, and always the customer just served, so the
+                    // auditoriums never fill up.
+                    if (random.nextBoolean())
+                        refund(theater, recent.get(random.nextInt(terminals)),
+                            refunded);
+                    refund(theater, served, refunded);
+                }
+            });
+            threads[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        long elapsed = System.nanoTime() - begin;
+
+        boolean passed = true;
+        for (String movie : MOVIES) {
+            Map<String, Integer> held = new HashMap<String, Integer>();
+            int viewers = 0;
+            for (String line : theater.getSeatingChart(movie).split("\n")) {
+                int by = line.indexOf(" used by ");
+                if (by >= 0) {
+                    String party = line.substring(by + 9, line.length() - 9);
+                    held.merge(party, 1, Integer::sum);
+                    viewers++;
+                }
+            }
+            for (Map.Entry<String, Integer> entry : held.entrySet()) {
+                Customer customer = entered.get(entry.getKey());
+                if (! theater.containsCustomer(entry.getKey())) {
+                    System.out.println("Refunded party " + entry.getKey()
+                        + " is still seated in " + movie);
+                    passed = false;
+                }
+                else if (customer.getPartySize() != entry.getValue()) {
+                    System.out.println("Seats double-booked or lost in "
+                        + movie + " for " + entry.getKey());
+                    passed = false;
+                }
+            }
+            if (theater.getNumberOfTicketsSold(movie) != viewers) {
+                System.out.println(movie + " ticket count is off: "
+                    + theater.getNumberOfTicketsSold(movie) + " recorded, "
+                    + viewers + " seated");
+                passed = false;
+            }
+        }
+        System.out.printf("%d terminals, %d customers, %d refunded, "
+            + "%.3f s: %s%n", terminals, terminals * perTerminal,
+            refunded.get(), elapsed / 1e9, passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+}
@@ -0,0 +1,277 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Spliterator;
+
+/**
+ * A differential check of the GapBufferList against the ArrayBasedList.
+ * <p>
+ * The same edits are made to both lists, and after every edit the whole of
+ * both is compared by index, by iterator, and by a split spliterator. A few
+ * fixed sequences come first, each aimed at one part of the gap buffer:
+ * <p>  - Moving the gap: edits at an index, then before it, then after it, so
+ *        the gap moves left and right by one item and by many.
+ * <p>  - Growing: a list with a capacity of four gets single items and whole
+ *        arrays inserted in its middle, so the array grows while items sit
+ *        after the gap and must be moved to the end of the new array.
+ * <p>  - Range and filter removal: the gap is moved into the middle of the
+ *        list, and then ranges before it, after it, and across it are
+ *        removed, and items are removed by a filter.
+ * <p>
+ * Then random edits are made, half of them next to the last one, the way
+ * seats are taken. Iterator removal is checked along the way.
+ * <p>
+ * Usage: java GapBufferListCheck [edits]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class GapBufferListCheck {
+
+    /* The number of failed checks. */
+    private static int failures = 0;
+    /* The next item to insert; every item is different. */
+    private static int nextItem = 0;
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of random edits.
+     */
+    public static void main(String[] args) {
+        int edits = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+        try {
+            checkGapMoves();
+            checkGrowth();
+            checkRemovals();
+            checkRandom(edits, new Random(22));
+        }
+        catch (RuntimeException ex) {
+            // A broken buffer may hold nulls or lose count of its items.
+            fail("check stopped by " + ex);
+        }
+        System.out.printf("%d random edits, %d failures: %s%n", edits,
+            failures, (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Moves the gap left and right, by one item and by many.
+     */
+    private static void checkGapMoves() {
+        ListInterface<Integer> gap = new GapBufferList<Integer>();
+        ListInterface<Integer> array = new ArrayBasedList<Integer>();
+        for (int i = 0; i < 50; i++)
+            add(gap, array, i, "filling");
+        int[] indexes = {40, 41, 39, 10, 11, 45, 0, 50, 25, 24, 26, 1, 49};
+        for (int index : indexes) {
+            add(gap, array, index, "gap moves");
+            remove(gap, array, Math.min(index + 3, array.size() - 1),
+                "gap moves");
+            add(gap, array, index / 2, "gap moves");
+        }
+        while (! array.isEmpty())
+            remove(gap, array, (array.size() * 7) % array.size(), "emptying");
+    }
+
+    /**
+     * Grows a small list while items sit after the gap.
+     */
+    private static void checkGrowth() {
+        ListInterface<Integer> gap = new GapBufferList<Integer>(4);
+        ListInterface<Integer> array = new ArrayBasedList<Integer>(4);
+        add(gap, array, 0, "growth");
+        add(gap, array, 1, "growth");
+        add(gap, array, 2, "growth");
+        // The gap is left at index 1 with two items after it.
+        add(gap, array, 1, "growth");
+        add(gap, array, 1, "growth");
+        for (int count : new int[] {1, 5, 2, 17, 40, 3}) {
+            Integer[] run = new Integer[count];
+            for (int i = 0; i < count; i++)
+                run[i] = nextItem++;
+            int index = array.size() / 3;
+            gap.addAll(index, run);
+            array.addAll(index, run);
+            compare(gap, array, "addAll of " + count + " at " + index);
+            add(gap, array, array.size() - 2, "growth");
+        }
+        for (int i = 0; i < 200; i++)
+            add(gap, array, array.size() / 2, "growth at the middle");
+    }
+
+    /**
+     * Removes ranges before, after, and across the gap, and removes items
+     * by a filter, after moving the gap into the middle.
+     */
+    private static void checkRemovals() {
+        int[][] ranges = {{0, 5}, {30, 40}, {15, 25}, {20, 20}, {0, 1},
+            {35, 45}, {5, 60}};
+        for (int[] range : ranges) {
+            ListInterface<Integer> gap = new GapBufferList<Integer>();
+            ListInterface<Integer> array = new ArrayBasedList<Integer>();
+            for (int i = 0; i < 80; i++)
+                add(gap, array, i, "filling");
+            // Leave the gap at index 20.
+            add(gap, array, 20, "moving the gap");
+            gap.removeRange(range[0], range[1]);
+            array.removeRange(range[0], range[1]);
+            compare(gap, array, "removeRange(" + range[0] + ", " + range[1]
+                + ")");
+            add(gap, array, range[0], "adding after removeRange");
+            add(gap, array, array.size() / 2, "moving the gap");
+            int removed = gap.removeIf(item -> item % 3 == 0);
+            if (removed != array.removeIf(item -> item % 3 == 0))
+                fail("removeIf removed a different number of items");
+            compare(gap, array, "removeIf after removeRange(" + range[0]
+                + ", " + range[1] + ")");
+            add(gap, array, 0, "adding after removeIf");
+            add(gap, array, array.size(), "adding after removeIf");
+        }
+    }
+
+    /**
+     * Makes random edits to both lists, half of them next to the last one.
+     *
+     * @param edits the number of edits.
+     * @param random the source of the edits.
+     */
+    private static void checkRandom(int edits, Random random) {
+        ListInterface<Integer> gap = new GapBufferList<Integer>(1);
+        ListInterface<Integer> array = new ArrayBasedList<Integer>(1);
+        int last = 0;
+        for (int edit = 0; edit < edits && failures == 0; edit++) {
+            int size = array.size();
+            int index = random.nextBoolean() ? Math.min(last, size)
+                : random.nextInt(size + 1);
+            int choice = random.nextInt(20);
+            String what = "edit " + edit;
+            if (choice < 9 || size == 0)
+                add(gap, array, index, what);
+            else if (choice < 16)
+                remove(gap, array, Math.min(index, size - 1), what);
+            else if (choice < 18) {
+                int to = Math.min(size, index + random.nextInt(8));
+                gap.removeRange(index, to);
+                array.removeRange(index, to);
+                compare(gap, array, what + ": removeRange(" + index + ", "
+                    + to + ")");
+            }
+            else if (choice < 19) {
+                int divisor = 2 + random.nextInt(10);
+                if (gap.removeIf(item -> item % divisor == 0)
+                        != array.removeIf(item -> item % divisor == 0))
+                    fail("removeIf removed a different number of items");
+                compare(gap, array, what + ": removeIf");
+            }
+            else {
+                // Remove every other item through the iterators.
+                Iterator<Integer> gapItems = gap.iterator();
+                Iterator<Integer> arrayItems = array.iterator();
+                for (int i = 0; gapItems.hasNext() && arrayItems.hasNext();
+                        i++) {
+                    gapItems.next();
+                    arrayItems.next();
+                    if ((i & 1) == 1) {
+                        gapItems.remove();
+                        arrayItems.remove();
+                    }
+                }
+                compare(gap, array, what + ": iterator removal");
+            }
+            last = index;
+        }
+    }
+
+    /**
+     * Inserts a new item into both lists.
+     *
+     * @param gap the gap buffer list.
+     * @param array the reference list.
+     * @param index the index to insert at.
+     * @param what a description of the edit.
+     */
+    private static void add(ListInterface<Integer> gap,
+            ListInterface<Integer> array, int index, String what) {
+        Integer item = nextItem++;
+        gap.add(index, item);
+        array.add(index, item);
+        compare(gap, array, what + ": add at " + index);
+    }
+
+    /**
+     * Removes an item from both lists.
+     *
+     * @param gap the gap buffer list.
+     * @param array the reference list.
+     * @param index the index to remove at.
+     * @param what a description of the edit.
+     */
+    private static void remove(ListInterface<Integer> gap,
+            ListInterface<Integer> array, int index, String what) {
+        Integer removed = gap.remove(index);
+        if (! Objects.equals(removed, array.remove(index)))
+            fail(what + ": remove at " + index + " removed the wrong item");
+        compare(gap, array, what + ": remove at " + index);
+    }
+
+    /**
+     * Compares the whole of both lists by index, by iterator, and by a split
+     * spliterator.
+     *
+     * @param gap the gap buffer list.
+     * @param array the reference list.
+     * @param when a description of the last edit.
+     */
+    private static void compare(ListInterface<Integer> gap,
+            ListInterface<Integer> array, String when) {
+        int size = array.size();
+        if (gap.size() != size || gap.isEmpty() != array.isEmpty()) {
+            fail("size " + gap.size() + " instead of " + size + " after "
+                + when);
+            return;
+        }
+        for (int i = 0; i < size; i++)
+            if (! Objects.equals(gap.get(i), array.get(i))) {
+                fail("item " + i + " is " + gap.get(i) + " instead of "
+                    + array.get(i) + " after " + when);
+                return;
+            }
+        int i = 0;
+        for (Integer item : gap)
+            if (i >= size || ! Objects.equals(item, array.get(i++))) {
+                fail("iterator differs at item " + (i - 1) + " after " + when);
+                return;
+            }
+        if (i != size)
+            fail("iterator stopped after " + i + " of " + size + " items after "
+                + when);
+        List<Integer> split = new ArrayList<Integer>();
+        Spliterator<Integer> suffix = gap.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+        if (prefix != null)
+            prefix.forEachRemaining(split::add);
+        suffix.forEachRemaining(split::add);
+        for (int j = 0; j < size; j++)
+            if (j >= split.size()
+                    || ! Objects.equals(split.get(j), array.get(j))) {
+                fail("spliterator differs at item " + j + " after " + when);
+                return;
+            }
+    }
+
+    /**
+     * Records a failed check.
+     *
+     * @param message what went wrong.
+     */
+    private static void fail(String message) {
+        if (failures++ < 10)
+            System.out.println(message);
+    }
+}
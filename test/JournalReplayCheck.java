@@ -0,0 +1,228 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * A check that a JournaledTheater replays a damaged journal up to its last
+ * whole record.
+ * <p>
+ * A journal is written with a group size of one, so every call is on disk
+ * when it returns, and the theater's state is saved after every call along
+ * with the size of the file. Copies of the journal are then damaged and
+ * replayed:
+ * <p>  - Cut short at the end of each call, the journal must give the state
+ *        saved after that call.
+ * <p>  - Cut short in the middle of a record, the journal must still open.
+ * <p>  - With the length of a record overwritten by one that runs past the end
+ *        of the file, the journal must give the state saved before it.
+ * <p>  - With the type of a record flipped, the journal must give the state
+ *        saved before it.
+ * <p>
+ * After each replay, one more call is journaled and the copy is replayed
+ * again, to check that the damaged tail was cut off rather than appended to.
+ * <p>
+ * Usage: java JournalReplayCheck [calls]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class JournalReplayCheck {
+
+    /* The movies playing during the check. */
+    private static final String[] MOVIES = {"Life", "Logan"};
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of calls to journal.
+     * @throws IOException if a journal cannot be written or copied.
+     */
+    public static void main(String[] args) throws IOException {
+        int calls = (args.length > 0) ? Integer.parseInt(args[0]) : 300;
+        Path journal = Files.createTempFile("replay", ".jnl");
+        Path copy = Files.createTempFile("damaged", ".jnl");
+        Files.delete(journal);
+
+        // The state and the size of the journal after every call.
+        String[] states = new String[calls + 1];
+        long[] sizes = new long[calls + 1];
+        JournaledTheater theater =
+            new JournaledTheater(5.00, journal.toString(), 1);
+        theater.addAuditorium(new Auditorium(MOVIES[0], 3, 4));
+        theater.addAuditorium(new Auditorium(MOVIES[1], 2, 5,
+            new BitmapSeatMap(10)));
+        theater.addLine("express", 0.5, true);
+        theater.addLine("first");
+        theater.setNextLine(1);
+        states[0] = state(theater);
+        sizes[0] = Files.size(journal);
+        Random random = new Random(17);
+        for (int i = 1; i <= calls; i++) {
+            call(theater, random, i);
+            states[i] = state(theater);
+            sizes[i] = Files.size(journal);
+        }
+        theater.close();
+
+        int failures = 0;
+        int replays = 0;
+        for (int i = 0; i <= calls; i++) {
+            // Cut short at the end of the call.
+            Files.copy(journal, copy, StandardCopyOption.REPLACE_EXISTING);
+            truncate(copy, sizes[i]);
+            failures += replay(copy, states[i], "cut after call " + i);
+            replays++;
+            if (i == calls || sizes[i + 1] == sizes[i])
+                continue;
+            long middle = sizes[i] + 1
+                + random.nextInt((int) (sizes[i + 1] - sizes[i] - 1));
+            Files.copy(journal, copy, StandardCopyOption.REPLACE_EXISTING);
+            truncate(copy, middle);
+            failures += replay(copy, null, "cut at " + middle);
+            // The next record claims more bytes than the file holds.
+            for (int length : new int[] {Integer.MAX_VALUE, 0x7FFFFFF0,
+                    (int) (sizes[calls] - sizes[i])}) {
+                Files.copy(journal, copy, StandardCopyOption.REPLACE_EXISTING);
+                overwrite(copy, sizes[i], length);
+                failures += replay(copy, states[i], "length " + length
+                    + " after call " + i);
+            }
+            // The type byte of the next record is flipped.
+            Files.copy(journal, copy, StandardCopyOption.REPLACE_EXISTING);
+            try (RandomAccessFile file =
+                    new RandomAccessFile(copy.toFile(), "rw")) {
+                file.seek(sizes[i] + 8);
+                int type = file.read();
+                file.seek(sizes[i] + 8);
+                file.write(type ^ 0x40);
+            }
+            failures += replay(copy, states[i], "flipped type after call "
+                + i);
+            replays += 5;
+        }
+        Files.delete(journal);
+        Files.delete(copy);
+        System.out.printf("%d calls, %d damaged replays, %d failures: %s%n",
+            calls, replays, failures, (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Makes one random call to the theater.
+     *
+     * @param theater the theater.
+     * @param random the source of the call.
+     * @param id a number for naming a new customer.
+     */
+    private static void call(Theater theater, Random random, int id) {
+        int call = random.nextInt(10);
+        try {
+            if (call < 4)
+                theater.enqueueCustomer(new Customer("c" + id,
+                    MOVIES[random.nextInt(MOVIES.length)],
+                    1 + random.nextInt(3)), random.nextBoolean());
+            else if (call < 7)
+                theater.seatNextCustomer();
+            else if (call < 8)
+                theater.removeFromTheater("c" + random.nextInt(id));
+            else if (call < 9)
+                theater.refundCustomer("c" + random.nextInt(id));
+            else
+                theater.setTicketPrice(1 + random.nextInt(20));
+        }
+        catch (TheaterException | ListException ex) {
+            // Failed calls are journaled and fail again during replay.
+        }
+    }
+
+    /**
+     * Opens a theater on the given journal and compares its state to the
+     * expected state, then checks that a call journaled after the replay
+     * is replayed in turn.
+     *
+     * @param journal the journal.
+     * @param expected the expected state, or null if any state will do.
+     * @param damage a description of the damage to the journal.
+     * @return the number of failures.
+     * @throws IOException if the journal cannot be read or written.
+     */
+    private static int replay(Path journal, String expected, String damage)
+            throws IOException {
+        try {
+            JournaledTheater theater =
+                new JournaledTheater(0, journal.toString(), 1);
+            String replayed = state(theater);
+            theater.setTicketPrice(42);
+            theater.close();
+            theater = new JournaledTheater(0, journal.toString(), 1);
+            double price = theater.getTicketPrice();
+            theater.close();
+            if (expected != null && ! expected.equals(replayed)) {
+                System.out.println("Wrong state replayed with " + damage);
+                return 1;
+            }
+            if (price != 42) {
+                System.out.println("Call lost after replay with " + damage);
+                return 1;
+            }
+            return 0;
+        }
+        catch (RuntimeException | OutOfMemoryError ex) {
+            System.out.println("Replay with " + damage + " failed: " + ex);
+            return 1;
+        }
+    }
+
+    /**
+     * Returns the state of the theater as a String.
+     *
+     * @param theater the theater.
+     * @return the price, sales, customers, lines and seating of the theater.
+     */
+    private static String state(Theater theater) {
+        StringBuilder state = new StringBuilder();
+        state.append(theater.getTicketPrice()).append(theater.getSales())
+            .append(theater.getNextLine()).append(theater.getCustomers());
+        for (int i = 0; i < theater.getNumberOfLines(); i++)
+            state.append(theater.getLineInfo(i));
+        for (String movie : theater.getMovies())
+            state.append(theater.getSeatingChart(movie))
+                .append(theater.getSales(movie));
+        return state.toString();
+    }
+
+    /**
+     * Cuts the given file short.
+     *
+     * @param path the file.
+     * @param size the new size of the file.
+     * @throws IOException if the file cannot be changed.
+     */
+    private static void truncate(Path path, long size) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(size);
+        }
+    }
+
+    /**
+     * Overwrites an integer in the given file.
+     *
+     * @param path the file.
+     * @param position the position of the integer.
+     * @param value the new value.
+     * @throws IOException if the file cannot be changed.
+     */
+    private static void overwrite(Path path, long position, int value)
+            throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(position);
+            file.writeInt(value);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+
+/**
+ * A check of the KeyedHashTable against a HashMap.
+ * <p>
+ * Every change is made to both a KeyedHashTable and a HashMap, and the table
+ * is checked against the map as it goes:
+ * <p>  - Wrapped runs: keys whose home slots are the last and first few slots
+ *        of a table of 16 are added and removed in random orders, so that
+ *        probe runs wrap around the end of the array and removals must shift
+ *        items back across it.
+ * <p>  - Random use: keys are added and removed at random while the table
+ *        grows through several resizes and shrinks back to empty.
+ * <p>  - Fail-fast: iterators and spliterators must throw a
+ *        ConcurrentModificationException once the table is changed under
+ *        them, and must not throw if it is not.
+ * <p>
+ * Usage: java KeyedHashTableCheck [operations]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class KeyedHashTableCheck {
+
+    /* The number of slots of a new table. */
+    private static final int INITIAL_SLOTS = 16;
+
+    /* The number of failed checks. */
+    private static int failures = 0;
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of random operations.
+     */
+    public static void main(String[] args) {
+        int operations = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+        Random random = new Random(4);
+        int wrapped = checkWrappedRuns(random, 2000);
+        checkRandom(random, operations);
+        checkFailFast();
+        System.out.printf("%d wrapped-run trials, %d random operations, "
+            + "%d failures: %s%n", wrapped, operations, failures,
+            (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Adds and removes keys whose probe runs wrap around the end of a table
+     * that is too small to resize.
+     *
+     * @param random the source of the orders of the keys.
+     * @param trials the number of sets of keys to try.
+     * @return the number of trials run.
+     */
+    private static int checkWrappedRuns(Random random, int trials) {
+        // Keys whose home slots are around the end of the array, with
+        // several sharing a slot so that their runs overlap.
+        int[] wanted = new int[INITIAL_SLOTS];
+        for (int home : new int[] {12, 13, 14, 14, 15, 15, 15, 0, 0, 0, 1, 2})
+            wanted[home]++;
+        List<String> keys = new ArrayList<String>();
+        for (int i = 0; keys.size() < 12; i++) {
+            String key = "w" + i;
+            if (wanted[home(key, INITIAL_SLOTS)]-- > 0)
+                keys.add(key);
+        }
+        for (int trial = 0; trial < trials; trial++) {
+            KeyedHashTable<Entry, String> table =
+                new KeyedHashTable<Entry, String>();
+            Map<String, Entry> reference = new HashMap<String, Entry>();
+            // At most half the slots are filled, so the table never resizes.
+            Collections.shuffle(keys, random);
+            for (String key : keys.subList(0, INITIAL_SLOTS / 2)) {
+                Entry entry = new Entry(key);
+                table.add(entry);
+                reference.put(key, entry);
+            }
+            compare(table, reference, "wrapped adds");
+            List<String> order = new ArrayList<String>(reference.keySet());
+            Collections.shuffle(order, random);
+            for (String key : order) {
+                if (table.remove(key) != reference.remove(key))
+                    fail("wrapped remove returned the wrong item for " + key);
+                compare(table, reference, "wrapped remove of " + key);
+            }
+        }
+        return trials;
+    }
+
+    /**
+     * Adds and removes random keys, growing the table through several
+     * resizes and then emptying it.
+     *
+     * @param random the source of the keys.
+     * @param operations the number of operations.
+     */
+    private static void checkRandom(Random random, int operations) {
+        KeyedHashTable<Entry, String> table =
+            new KeyedHashTable<Entry, String>();
+        Map<String, Entry> reference = new HashMap<String, Entry>();
+        for (int i = 0; i < operations; i++) {
+            // Grow for the first half of the run, then shrink.
+            int range = 1 + Math.min(i, operations - i) / 4;
+            String key = "r" + random.nextInt(range);
+            boolean grow = i < operations / 2;
+            if (random.nextInt(4) < (grow ? 3 : 1)) {
+                Entry entry = new Entry(key);
+                boolean added = true;
+                try {
+                    table.add(entry);
+                }
+                catch (ListException ex) {
+                    added = false;
+                }
+                if (added == reference.containsKey(key))
+                    fail("add of " + key + " disagrees with the reference");
+                reference.putIfAbsent(key, entry);
+            }
+            else {
+                Entry removed = null;
+                try {
+                    removed = table.remove(key);
+                }
+                catch (ListException ex) {
+                    // Not in the table.
+                }
+                if (removed != reference.remove(key))
+                    fail("remove of " + key + " disagrees with the reference");
+            }
+            if (table.contains(key) != reference.containsKey(key))
+                fail("contains of " + key + " disagrees with the reference");
+            if ((i & 1023) == 0)
+                compare(table, reference, "operation " + i);
+        }
+        for (String key : new ArrayList<String>(reference.keySet()))
+            if (table.remove(key) != reference.remove(key))
+                fail("final remove of " + key + " returned the wrong item");
+        compare(table, reference, "emptying");
+    }
+
+    /**
+     * Checks that iterators and spliterators fail fast when the table is
+     * changed under them, and only then.
+     */
+    private static void checkFailFast() {
+        KeyedHashTable<Entry, String> table =
+            new KeyedHashTable<Entry, String>();
+        for (int i = 0; i < 100; i++)
+            table.add(new Entry("f" + i));
+
+        Iterator<Entry> iterator = table.iterator();
+        iterator.next();
+        table.add(new Entry("added"));
+        expectFailure(() -> iterator.next(), "iterator after add");
+
+        Iterator<Entry> second = table.iterator();
+        second.next();
+        table.remove("added");
+        expectFailure(() -> second.next(), "iterator after remove");
+
+        Spliterator<Entry> spliterator = table.spliterator();
+        spliterator.tryAdvance(entry -> { });
+        table.removeAll();
+        expectFailure(() -> spliterator.forEachRemaining(entry -> { }),
+            "spliterator after removeAll");
+
+        for (int i = 0; i < 100; i++)
+            table.add(new Entry("f" + i));
+        int count = 0;
+        try {
+            for (Entry entry : table)
+                if (table.get(entry.getKey()) == entry)
+                    count++;
+            Spliterator<Entry> split = table.spliterator();
+            Spliterator<Entry> prefix = split.trySplit();
+            long[] visited = {0};
+            split.forEachRemaining(entry -> visited[0]++);
+            if (prefix != null)
+                prefix.forEachRemaining(entry -> visited[0]++);
+            if (visited[0] != 100)
+                fail("split spliterators visited " + visited[0] + " items");
+        }
+        catch (ConcurrentModificationException ex) {
+            fail("iteration of an unchanged table failed");
+        }
+        if (count != 100)
+            fail("iterator visited " + count + " of 100 items");
+    }
+
+    /**
+     * Checks that the table holds exactly the items of the reference map.
+     *
+     * @param table the table.
+     * @param reference the map.
+     * @param when a description of the last change.
+     */
+    private static void compare(KeyedHashTable<Entry, String> table,
+            Map<String, Entry> reference, String when) {
+        if (table.size() != reference.size()) {
+            fail("size " + table.size() + " instead of " + reference.size()
+                + " after " + when);
+            return;
+        }
+        for (Map.Entry<String, Entry> entry : reference.entrySet())
+            if (! table.contains(entry.getKey())
+                    || table.get(entry.getKey()) != entry.getValue()) {
+                fail(entry.getKey() + " lost after " + when);
+                return;
+            }
+        int visited = 0;
+        for (Entry entry : table)
+            if (reference.get(entry.getKey()) == entry)
+                visited++;
+        if (visited != reference.size())
+            fail("iterator visited " + visited + " of " + reference.size()
+                + " items after " + when);
+    }
+
+    /**
+     * Runs the given action and checks that it throws a
+     * ConcurrentModificationException.
+     *
+     * @param action the action.
+     * @param what a description of the action.
+     */
+    private static void expectFailure(Runnable action, String what) {
+        try {
+            action.run();
+            fail(what + " did not fail fast");
+        }
+        catch (ConcurrentModificationException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Returns the home slot of the given key in a table with the given
+     * number of slots. This mirrors the hash used by KeyedHashTable.
+     *
+     * @param key the key.
+     * @param slots the number of slots, a power of two.
+     * @return the home slot of the key.
+     */
+    private static int home(String key, int slots) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (slots - 1);
+    }
+
+    /**
+     * Records a failed check.
+     *
+     * @param message what went wrong.
+     */
+    private static void fail(String message) {
+        if (failures++ < 10)
+            System.out.println(message);
+    }
+
+    /**
+     * An item of the table, identified by a String.
+     */
+    private static class Entry extends KeyedItem<String> {
+
+        Entry(String key) {
+            super(key);
+        }
+    }
+}
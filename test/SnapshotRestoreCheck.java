@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * A check that a JournaledTheater restored from a snapshot only reads the
+ * seats of the auditoriums that are used.
+ * <p>
+ * A theater with many auditoriums, some with a BitmapSeatMap, some seating
+ * parties together and some with a ticket price of their own, is filled
+ * with customers and saved with a checkpoint. A few calls for two movies
+ * are journaled after it, and the theater is closed and opened again:
+ * <p>  - Only the auditoriums of the two movies that the journaled calls
+ *        seated and refunded customers for may have had their seats read.
+ * <p>  - The sales of the theater and of every movie must be as they were,
+ *        still without reading any other auditorium's seats.
+ * <p>  - A customer refunded from an auditorium whose seats were not read
+ *        must leave it with their seats freed and their money paid back.
+ * <p>  - Every auditorium's seating chart must be as it was, and asking for
+ *        it must read its seats.
+ * <p>
+ * Usage: java SnapshotRestoreCheck [auditoriums]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class SnapshotRestoreCheck {
+
+    /* The number of failures found so far. */
+    private static int failures = 0;
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of auditoriums.
+     * @throws IOException if the journal or snapshot cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int numAuds = (args.length > 0) ? Integer.parseInt(args[0]) : 40;
+        Path journal = Files.createTempFile("restore", ".jnl");
+        Path snapshot = Files.createTempFile("restore", ".snap");
+        Files.delete(journal);
+        Files.delete(snapshot);
+        String[] movies = new String[numAuds];
+        for (int i = 0; i < numAuds; i++)
+            movies[i] = String.format("Movie%03d", i);
+
+        // Fill the theater and save it.
+        JournaledTheater theater = new JournaledTheater(5.00,
+            journal.toString(), snapshot.toString(), 64);
+        for (int i = 0; i < numAuds; i++) {
+            Auditorium aud = (i % 3 == 0) ?
+                new Auditorium(movies[i], 4, 70, new BitmapSeatMap(280)) :
+                new Auditorium(movies[i], 5, 12);
+            aud.setSeatingTogether(i % 2 == 0);
+            if (i % 5 == 0)
+                aud.setTicketPrice(7.25);
+            theater.addAuditorium(aud);
+        }
+        theater.addLine("express", 0.5, true);
+        theater.addLine("first");
+        theater.setNextLine(0);
+        Random random = new Random(18);
+        int id = 0;
+        for (int i = 0; i < numAuds; i++)
+            for (int p = 0; p < 6; p++)
+                seat(theater, "c" + id++, movies[i], 1 + random.nextInt(6),
+                    random.nextBoolean());
+        theater.refundCustomer("c" + (6 * (numAuds / 2)));
+        theater.checkpoint(snapshot.toString());
+
+        // Journal calls for two movies only.
+        String seated = movies[numAuds / 4];
+        String refunded = movies[numAuds / 2];
+        seat(theater, "c" + id++, seated, 3, false);
+        theater.refundCustomer("c" + (6 * (numAuds / 2) + 1));
+        TicketSales total = theater.getSales();
+        TicketSales[] sales = new TicketSales[numAuds];
+        String[] charts = new String[numAuds];
+        for (int i = 0; i < numAuds; i++) {
+            sales[i] = theater.getSales(movies[i]);
+            charts[i] = theater.getSeatingChart(movies[i]);
+        }
+        // A customer of an auditorium the journal does not touch.
+        String untouched = movies[numAuds - 1];
+        String leaving = "c" + (6 * (numAuds - 1) + 2);
+        Auditorium last = theater.getAuditorium(untouched);
+        TicketSales paid = last.getParty(indexOfParty(last, leaving)).getPaid();
+        theater.close();
+
+        theater = new JournaledTheater(0, journal.toString(),
+            snapshot.toString(), 64);
+        for (int i = 0; i < numAuds; i++) {
+            boolean used = movies[i].equals(seated)
+                || movies[i].equals(refunded);
+            if (theater.getAuditorium(i).isSeatingSaved() == used)
+                fail("Seats of " + movies[i] + (used ? " not read" :
+                    " read") + " on restore");
+        }
+        if (! same(theater.getSales(), total))
+            fail("Theater sales " + theater.getSales() + ", expected "
+                + total);
+        for (int i = 0; i < numAuds; i++)
+            if (! same(theater.getSales(movies[i]), sales[i]))
+                fail("Sales of " + movies[i] + " "
+                    + theater.getSales(movies[i]) + ", expected " + sales[i]);
+        int read = 0;
+        for (int i = 0; i < numAuds; i++)
+            if (! theater.getAuditorium(i).isSeatingSaved())
+                read++;
+        if (read != 2)
+            fail(read + " auditoriums read after asking for sales");
+
+        // Refund a customer whose auditorium has not been read.
+        TicketSales refund = theater.refundCustomer(leaving);
+        if (! same(refund, paid))
+            fail("Refund of " + leaving + " " + refund + ", expected "
+                + paid);
+        if (theater.getSeatingChart(untouched).contains(leaving + "'s"))
+            fail(leaving + " still seated after refund");
+        if (! same(theater.getSales(untouched),
+                sales[numAuds - 1].subtract(paid)))
+            fail("Sales of " + untouched + " not refunded");
+
+        for (int i = 0; i < numAuds - 1; i++) {
+            if (! theater.getSeatingChart(movies[i]).equals(charts[i]))
+                fail("Seating of " + movies[i] + " changed on restore");
+            if (theater.getAuditorium(i).isSeatingSaved())
+                fail("Seats of " + movies[i] + " not read for its chart");
+        }
+        theater.close();
+        Files.delete(journal);
+        Files.delete(snapshot);
+        System.out.printf("%d auditoriums, %d customers, %d failures: %s%n",
+            numAuds, id, failures, (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Puts a customer in a line and seats them.
+     *
+     * @param theater the theater.
+     * @param name the name of the customer.
+     * @param movie the movie the customer wants to see.
+     * @param partySize the size of the customer's party.
+     * @param hasChild whether the customer has a child with them.
+     */
+    private static void seat(Theater theater, String name, String movie,
+            int partySize, boolean hasChild) {
+        theater.enqueueCustomer(new Customer(name, movie, partySize),
+            hasChild);
+        // The lines are empty but for this customer.
+        theater.getNextCustomer();
+        theater.seatNextCustomer();
+    }
+
+    /**
+     * Returns the index of the party with the given name in an auditorium.
+     *
+     * @param aud the auditorium.
+     * @param name the name of the party.
+     * @return the index of the party.
+     */
+    private static int indexOfParty(Auditorium aud, String name) {
+        for (int p = 0; p < aud.getNumberOfParties(); p++)
+            if (aud.getParty(p).getKey().equals(name))
+                return p;
+        throw new TheaterException("No party " + name + " in " + aud.getKey());
+    }
+
+    /**
+     * Returns true if the given ticket sales are the same.
+     *
+     * @param sales the ticket sales.
+     * @param expected the expected ticket sales.
+     * @return true if both have the same tickets and cents.
+     */
+    private static boolean same(TicketSales sales, TicketSales expected) {
+        return sales.getTickets() == expected.getTickets()
+            && sales.getCents() == expected.getCents();
+    }
+
+    /**
+     * Records a failure, printing the first ten.
+     *
+     * @param message a description of the failure.
+     */
+    private static void fail(String message) {
+        if (++failures <= 10)
+            System.out.println(message);
+    }
+}
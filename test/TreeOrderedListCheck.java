@@ -0,0 +1,185 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+/**
+ * A randomized check of the TreeOrderedList against the
+ * AscendinglyOrderedList.
+ * <p>
+ * The same random adds and removes, by key and by index, are made to both
+ * lists, and after every change their answers to indexOf, contains, get by
+ * index and get by key are compared. Keys are drawn from a small range, so
+ * searches for missing keys, duplicate keys, and removals down to an empty
+ * list all come up. Every so often the whole of both lists is compared by
+ * index, by iterator, and by a spliterator split into two halves.
+ * <p>
+ * Items with equal keys may sit in either order in the two lists, so only
+ * their keys are compared by position.
+ * <p>
+ * Usage: java TreeOrderedListCheck [operations]
+ * <p>
+ * Prints a summary and exits with status 1 if any check fails.
+ *
+ * @author agent
+ * @version 2026.10.17
+ */
+public class TreeOrderedListCheck {
+
+    /* The number of failed checks. */
+    private static int failures = 0;
+
+    /**
+     * Runs the check.
+     *
+     * @param args optional number of random operations.
+     */
+    public static void main(String[] args) {
+        int operations = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+        Random random = new Random(5);
+        TreeOrderedList<Entry, Integer> tree =
+            new TreeOrderedList<Entry, Integer>();
+        AscendinglyOrderedList<Entry, Integer> list =
+            new AscendinglyOrderedList<Entry, Integer>();
+        int largest = 0;
+        for (int i = 0; i < operations && failures == 0; i++) {
+            // Grow for the first half of the run, then shrink.
+            boolean grow = i < operations / 2;
+            int range = 8 + Math.min(i, operations - i) / 8;
+            int key = random.nextInt(range);
+            int choice = random.nextInt(8);
+            if (choice < (grow ? 5 : 2)) {
+                Entry entry = new Entry(key);
+                tree.add(entry);
+                list.add(entry);
+            }
+            else if (choice < 5 && ! list.isEmpty()) {
+                int index = random.nextInt(list.size());
+                same(tree.remove(index).getKey(), list.remove(index).getKey(),
+                    "remove(" + index + ")");
+            }
+            else if (choice < 7) {
+                boolean inList = list.contains(key);
+                try {
+                    same(tree.remove(Integer.valueOf(key)).getKey(), key,
+                        "remove(key " + key + ")");
+                    list.remove(Integer.valueOf(key));
+                    if (! inList)
+                        fail("remove of missing key " + key + " succeeded");
+                }
+                catch (ListException ex) {
+                    if (inList)
+                        fail("remove of key " + key + " failed");
+                }
+            }
+            else if (random.nextInt(1000) == 0) {
+                tree.removeAll();
+                list.removeAll();
+            }
+            largest = Math.max(largest, list.size());
+            compareLookups(tree, list, random, range);
+            if ((i & 255) == 0)
+                compareAll(tree, list);
+        }
+        compareAll(tree, list);
+        System.out.printf("%d operations, largest list %d, %d failures: %s%n",
+            operations, largest, failures,
+            (failures == 0) ? "PASSED" : "FAILED");
+        if (failures > 0)
+            System.exit(1);
+    }
+
+    /**
+     * Compares the answers of both lists to a few random lookups.
+     *
+     * @param tree the tree list.
+     * @param list the reference list.
+     * @param random the source of the lookups.
+     * @param range the range of keys in use.
+     */
+    private static void compareLookups(TreeOrderedList<Entry, Integer> tree,
+            AscendinglyOrderedList<Entry, Integer> list, Random random,
+            int range) {
+        same(tree.size(), list.size(), "size");
+        same(tree.isEmpty(), list.isEmpty(), "isEmpty");
+        Integer key = random.nextInt(range + 2) - 1;
+        same(tree.indexOf(key), list.indexOf(key), "indexOf(" + key + ")");
+        same(tree.contains(key), list.contains(key), "contains(" + key + ")");
+        if (list.contains(key))
+            same(tree.get(key).getKey(), key, "get(key " + key + ")");
+        if (! list.isEmpty()) {
+            int index = random.nextInt(list.size());
+            same(tree.get(index).getKey(), list.get(index).getKey(),
+                "get(" + index + ")");
+        }
+    }
+
+    /**
+     * Compares the whole of both lists by index, by iterator, and by a split
+     * spliterator.
+     *
+     * @param tree the tree list.
+     * @param list the reference list.
+     */
+    private static void compareAll(TreeOrderedList<Entry, Integer> tree,
+            AscendinglyOrderedList<Entry, Integer> list) {
+        int size = list.size();
+        same(tree.size(), size, "size");
+        for (int i = 0; i < size; i++)
+            same(tree.get(i).getKey(), list.get(i).getKey(), "get(" + i + ")");
+        Iterator<Entry> iterator = tree.iterator();
+        for (int i = 0; i < size; i++)
+            if (! iterator.hasNext()) {
+                fail("iterator ended after " + i + " of " + size + " items");
+                return;
+            }
+            else
+                same(iterator.next().getKey(), list.get(i).getKey(),
+                    "item " + i + " of the iterator");
+        if (iterator.hasNext())
+            fail("iterator went past " + size + " items");
+        List<Integer> split = new ArrayList<Integer>();
+        Spliterator<Entry> suffix = tree.spliterator();
+        Spliterator<Entry> prefix = suffix.trySplit();
+        if (prefix != null)
+            prefix.forEachRemaining(entry -> split.add(entry.getKey()));
+        suffix.forEachRemaining(entry -> split.add(entry.getKey()));
+        same(split.size(), size, "spliterator size");
+        for (int i = 0; i < size && i < split.size(); i++)
+            same(split.get(i), list.get(i).getKey(),
+                "item " + i + " of the spliterator");
+    }
+
+    /**
+     * Checks that the tree list gave the same answer as the reference list.
+     *
+     * @param actual the answer of the tree list.
+     * @param expected the answer of the reference list.
+     * @param what the question asked.
+     */
+    private static void same(Object actual, Object expected, String what) {
+        if (! actual.equals(expected))
+            fail(what + " gave " + actual + " instead of " + expected);
+    }
+
+    /**
+     * Records a failed check.
+     *
+     * @param message what went wrong.
+     */
+    private static void fail(String message) {
+        if (failures++ < 10)
+            System.out.println(message);
+    }
+
+    /**
+     * An item of the lists, identified by an Integer.
+     */
+    private static class Entry extends KeyedItem<Integer> {
+
+        Entry(int key) {
+            super(key);
+        }
+    }
+}